@@ -9,6 +9,7 @@ import me.cubix.ui.MenuState;
 import me.cubix.ui.NuklearGL3;
 import me.cubix.world.World;
 import me.cubix.world.WorldInfo;
+import me.cubix.world.save.WorldStorage;
 import org.joml.Vector3f;
 
 import java.io.IOException;
@@ -63,7 +64,7 @@ public final class Game {
             @Override public void startSingleplayer(WorldInfo world) {
                 System.out.println("[MENU] Start world: " + world.name() + " seed=" + world.seed());
                 World w = new World(world.seed(), world);
-                w.getBlock(0, 0, 0);
+                w.preload(0, 0, 0, 4); // 첫 화면(9x9x9)을 미리 병렬 생성
                 setWorld(w);
                 state = State.PLAY;
                 glfwSetInputMode(window.handle(), GLFW_CURSOR, GLFW_CURSOR_DISABLED);
@@ -111,7 +112,9 @@ public final class Game {
                     World w = world();
                     if (w != null) {
                         try {
+                            w.close();
                             saveDirtyChunks(w);
+                            WorldStorage.close(w.info());
                         } catch (IOException e) {
                             throw new RuntimeException(e);
                         }
@@ -1,7 +1,53 @@
 package me.cubix;
 
+import me.cubix.world.WorldInfo;
+import me.cubix.world.WorldInfoStorage;
+import me.cubix.world.save.Pregenerator;
+
+import java.io.IOException;
+
 public class Main {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && args[0].equals("--pregen")) {
+            pregen(args);
+            return;
+        }
         new Game().run();
     }
+
+    /** --pregen <worldId> [--radius N] [--threads N]. GLFW는 안 건드린다. */
+    private static void pregen(String[] args) throws IOException {
+        if (args.length < 2) usage();
+        String worldId = args[1];
+        int radius = 16;
+        int threads = Runtime.getRuntime().availableProcessors();
+        for (int i = 2; i < args.length; i++) {
+            switch (args[i]) {
+                case "--radius" -> radius = Integer.parseInt(arg(args, ++i));
+                case "--threads" -> threads = Integer.parseInt(arg(args, ++i));
+                default -> usage();
+            }
+        }
+        if (radius < 0 || threads < 1) usage();
+
+        WorldInfo info = null;
+        for (WorldInfo w : new WorldInfoStorage().listWorlds()) {
+            if (w.id().equals(worldId)) info = w;
+        }
+        if (info == null) {
+            System.err.println("No such world: " + worldId + " (looked in saves/)");
+            System.exit(1);
+        }
+        new Pregenerator(info, radius, threads).run();
+    }
+
+    private static String arg(String[] args, int i) {
+        if (i >= args.length) usage();
+        return args[i];
+    }
+
+    private static void usage() {
+        System.err.println("usage: --pregen <worldId> [--radius N] [--threads N]");
+        System.exit(2);
+    }
 }
@@ -1,5 +1,6 @@
 package me.cubix.gameplay;
 
+import me.cubix.world.BlockCursor;
 import me.cubix.world.World;
 import me.cubix.world.block.BlockId;
 import org.joml.Vector3f;
@@ -42,20 +43,23 @@ public final class Player {
 
         onGround = false;
 
+        // 아직 로드 안 된 청크는 고체로 취급해서 빠져 떨어지지 않게 함
+        BlockCursor blocks = world.cursor(BlockId.STONE);
+
         // 1) X
         if (delta.x != 0f) {
-            pos.x = moveAxis(world, pos.x, pos.y, pos.z, delta.x, 0, height);
+            pos.x = moveAxis(blocks, pos.x, pos.y, pos.z, delta.x, 0, height);
         }
 
         // 2) Z
         if (delta.z != 0f) {
-            pos.z = moveAxis(world, pos.x, pos.y, pos.z, delta.z, 2, height);
+            pos.z = moveAxis(blocks, pos.x, pos.y, pos.z, delta.z, 2, height);
         }
 
         // 3) Y (중력/점프가 있으면 보통 마지막)
         if (delta.y != 0f) {
             float oldY = pos.y;
-            pos.y = moveAxis(world, pos.x, pos.y, pos.z, delta.y, 1, height);
+            pos.y = moveAxis(blocks, pos.x, pos.y, pos.z, delta.y, 1, height);
 
             // 아래로 이동하려다 막혔으면 지면
             if (delta.y < 0f && pos.y > oldY - Math.abs(delta.y) + EPS) {
@@ -77,7 +81,7 @@ public final class Player {
     /**
      * axis: 0=x, 1=y, 2=z
      */
-    private float moveAxis(World world, float x, float y, float z, float d, int axis, float height) {
+    private float moveAxis(BlockCursor blocks, float x, float y, float z, float d, int axis, float height) {
         if (d == 0f) return (axis == 0 ? x : axis == 1 ? y : z);
 
         float nx = x, ny = y, nz = z;
@@ -111,7 +115,7 @@ public final class Player {
                     // 하지만 단순 스캔으로도 충분히 빠름(청크 단위 최적화는 나중에)
                     for (int by = by0; by <= by1; by++) {
                         for (int bz = bz0; bz <= bz1; bz++) {
-                            if (!isSolid(world, bx, by, bz)) continue;
+                            if (!isSolid(blocks, bx, by, bz)) continue;
                             // 이 블록의 왼쪽 면은 x = bx
                             float stop = bx - halfWidth - EPS;
                             if (stop < allowedX) allowedX = stop;
@@ -126,7 +130,7 @@ public final class Player {
                 for (int bx = bx0; bx <= bx1; bx++) {
                     for (int by = by0; by <= by1; by++) {
                         for (int bz = bz0; bz <= bz1; bz++) {
-                            if (!isSolid(world, bx, by, bz)) continue;
+                            if (!isSolid(blocks, bx, by, bz)) continue;
                             // 이 블록의 오른쪽 면은 x = bx + 1
                             float stop = (bx + 1) + halfWidth + EPS;
                             if (stop > allowedX) allowedX = stop;
@@ -144,7 +148,7 @@ public final class Player {
                 for (int bx = bx0; bx <= bx1; bx++) {
                     for (int by = by0; by <= by1; by++) {
                         for (int bz = bz0; bz <= bz1; bz++) {
-                            if (!isSolid(world, bx, by, bz)) continue;
+                            if (!isSolid(blocks, bx, by, bz)) continue;
                             float stop = bz - halfWidth - EPS;
                             if (stop < allowedZ) allowedZ = stop;
                         }
@@ -156,7 +160,7 @@ public final class Player {
                 for (int bx = bx0; bx <= bx1; bx++) {
                     for (int by = by0; by <= by1; by++) {
                         for (int bz = bz0; bz <= bz1; bz++) {
-                            if (!isSolid(world, bx, by, bz)) continue;
+                            if (!isSolid(blocks, bx, by, bz)) continue;
                             float stop = (bz + 1) + halfWidth + EPS;
                             if (stop > allowedZ) allowedZ = stop;
                         }
@@ -174,7 +178,7 @@ public final class Player {
             for (int bx = bx0; bx <= bx1; bx++) {
                 for (int by = by0; by <= by1; by++) {
                     for (int bz = bz0; bz <= bz1; bz++) {
-                        if (!isSolid(world, bx, by, bz)) continue;
+                        if (!isSolid(blocks, bx, by, bz)) continue;
                         // 이 블록의 바닥은 y = by
                         float stop = by - height - EPS;
                         if (stop < allowedY) allowedY = stop;
@@ -188,7 +192,7 @@ public final class Player {
             for (int bx = bx0; bx <= bx1; bx++) {
                 for (int by = by0; by <= by1; by++) {
                     for (int bz = bz0; bz <= bz1; bz++) {
-                        if (!isSolid(world, bx, by, bz)) continue;
+                        if (!isSolid(blocks, bx, by, bz)) continue;
                         // 이 블록의 윗면은 y = by + 1
                         float stop = (by + 1) + EPS;
                         if (stop > allowedY) allowedY = stop;
@@ -200,8 +204,8 @@ public final class Player {
         return ny;
     }
 
-    private boolean isSolid(World world, int x, int y, int z) {
-        short id = world.getBlock(x, y, z);
+    private boolean isSolid(BlockCursor blocks, int x, int y, int z) {
+        short id = blocks.get(x, y, z);
         // 공기/물은 비고체(원하면 나중에 물 충돌 따로 처리)
         return id != BlockId.AIR && id != BlockId.WATER;
     }
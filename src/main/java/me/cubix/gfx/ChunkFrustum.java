@@ -0,0 +1,37 @@
+package me.cubix.gfx;
+
+import me.cubix.world.chunk.Chunk;
+import org.joml.FrustumIntersection;
+import org.joml.Matrix4f;
+
+/**
+ * 청크 AABB vs 시야 절두체. GL을 안 쓰는 순수 계산이라 창 없이도 돌릴 수 있다.
+ * 프레임마다 {@link #update}로 행렬을 넣고 청크마다 {@link #isVisible}을 부른다.
+ */
+public final class ChunkFrustum {
+    private final Matrix4f viewProj = new Matrix4f();
+    private final FrustumIntersection frustum = new FrustumIntersection();
+
+    // 마지막 update() 이후 통계
+    private int tested, culled;
+
+    public void update(Matrix4f proj, Matrix4f view) {
+        proj.mul(view, viewProj);
+        frustum.set(viewProj, false);
+        tested = 0;
+        culled = 0;
+    }
+
+    public boolean isVisible(int cx, int cy, int cz) {
+        float S = Chunk.S;
+        float x = cx * S, y = cy * S, z = cz * S;
+        tested++;
+        if (frustum.testAab(x, y, z, x + S, y + S, z + S)) return true;
+        culled++;
+        return false;
+    }
+
+    public int tested() { return tested; }
+
+    public int culled() { return culled; }
+}
@@ -0,0 +1,101 @@
+package me.cubix.gfx;
+
+import me.cubix.gfx.model.ChunkVisibility;
+
+/**
+ * 카메라 청크에서 시작하는 BFS로 보일 수 있는 청크만 고른다.
+ * 청크에 면 a로 들어왔으면 a와 통하는 면 b로만 나갈 수 있고, 지금까지 간 방향의 반대로는 안 돌아간다.
+ * 그래서 동굴 속이나 산 뒤처럼 빈 칸으로 이어지지 않은 청크는 안 그린다. GL 없이 돌아간다.
+ */
+public final class OcclusionCuller {
+    /** 청크의 면 연결 마스크 ({@link ChunkVisibility}). 모르면 ALL을 돌려줄 것. */
+    @FunctionalInterface
+    public interface Graph {
+        int faces(int cx, int cy, int cz);
+    }
+
+    // 면 번호 순서 (+X, -X, +Y, -Y, +Z, -Z)
+    private static final int[][] DIRS = {
+            {1, 0, 0}, {-1, 0, 0}, {0, 1, 0}, {0, -1, 0}, {0, 0, 1}, {0, 0, -1}
+    };
+
+    private int originX, originY, originZ, radius, side;
+    // 칸마다: 0 = 안 감, 아니면 (들어온 면 + 1) | (지나온 방향 비트 << 3)
+    private int[] state = new int[0];
+    private int[] queue = new int[0];
+
+    private int visible, occluded;
+
+    /** 카메라 청크 중심 반경 r 큐브에서 BFS. 프레임마다 한 번. */
+    public void update(int camCx, int camCy, int camCz, int r, Graph graph) {
+        originX = camCx - r;
+        originY = camCy - r;
+        originZ = camCz - r;
+        radius = r;
+        side = 2 * r + 1;
+
+        int n = side * side * side;
+        if (state.length < n) {
+            state = new int[n];
+            queue = new int[n];
+        } else {
+            java.util.Arrays.fill(state, 0, n, 0);
+        }
+        occluded = 0;
+
+        int head = 0, tail = 0;
+        int start = cell(r, r, r);
+        state[start] = 7; // 시작 칸: 들어온 면 없음
+        queue[tail++] = start;
+        visible = 1;
+
+        while (head < tail) {
+            int i = queue[head++];
+            int lx = i % side, ly = (i / side) % side, lz = i / (side * side);
+            int in = (state[i] & 7) - 1;         // 시작 칸이면 6
+            int traveled = state[i] >>> 3;
+            int faces = in == 6 ? ChunkVisibility.ALL
+                    : graph.faces(originX + lx, originY + ly, originZ + lz);
+
+            for (int out = 0; out < 6; out++) {
+                // 지나온 방향을 되돌아가는 쪽은 막는다 (반대 방향 = out ^ 1)
+                if ((traveled & (1 << (out ^ 1))) != 0) continue;
+                if (in != 6 && !ChunkVisibility.connected(faces, in, out)) continue;
+
+                int nx = lx + DIRS[out][0], ny = ly + DIRS[out][1], nz = lz + DIRS[out][2];
+                if (nx < 0 || ny < 0 || nz < 0 || nx >= side || ny >= side || nz >= side) continue;
+
+                int j = cell(nx, ny, nz);
+                if (state[j] != 0) continue;
+                // 이웃 입장에서는 반대편 면으로 들어온 것
+                state[j] = ((out ^ 1) + 1) | ((traveled | (1 << out)) << 3);
+                queue[tail++] = j;
+                visible++;
+            }
+        }
+    }
+
+    /** 마지막 update() 범위 안에서 도달했는지. 범위 밖은 false. 안 보이면 통계에 센다. */
+    public boolean isVisible(int cx, int cy, int cz) {
+        int lx = cx - originX, ly = cy - originY, lz = cz - originZ;
+        if (lx < 0 || ly < 0 || lz < 0 || lx >= side || ly >= side || lz >= side) {
+            occluded++;
+            return false;
+        }
+        if (state[cell(lx, ly, lz)] != 0) return true;
+        occluded++;
+        return false;
+    }
+
+    /** 도달한 청크 수. */
+    public int reached() { return visible; }
+
+    /** 마지막 update() 이후 isVisible()에서 걸러진 수. */
+    public int occluded() { return occluded; }
+
+    public int radius() { return radius; }
+
+    private int cell(int lx, int ly, int lz) {
+        return (lz * side + ly) * side + lx;
+    }
+}
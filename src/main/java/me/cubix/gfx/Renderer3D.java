@@ -1,22 +1,33 @@
 package me.cubix.gfx;
 
 import me.cubix.core.Window;
-import me.cubix.gfx.mesh.ChunkMesh;
+import me.cubix.gfx.mesh.ChunkArena;
 import me.cubix.world.World;
 import me.cubix.world.chunk.Chunk;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import static org.lwjgl.opengl.GL33.*;
 
 public final class Renderer3D {
     private final Window window;
     public Camera camera;
     private Shader shader;
+    private Shader.Mat4Uniform uProj, uView;
+    private Shader.IntUniform uAtlas, uTilesPerRow, uChunkOrigins, uGranuleShift;
     private Texture atlas;
-    private me.cubix.gfx.mesh.ChunkMesh testMesh;
-    private final java.util.HashMap<Long, me.cubix.gfx.mesh.ChunkMesh> chunkMeshes = new java.util.HashMap<>();
+    private me.cubix.gfx.mesh.QuadIndexBuffer quadIndices;
+    private ChunkArena arena;
+
+    // 아틀라스 = TILE_SIZE 픽셀 타일이 ATLAS_SIZE 정사각형에 줄지어 있음. 셰이더가 타일 좌표를 계산
+    private static final int ATLAS_SIZE = 1024;
+    private static final int TILE_SIZE = 64;
+
+    // -Dcubix.mesh=naive 로 예전 방식과 비교
+    private me.cubix.gfx.model.MeshMode meshMode =
+            "naive".equalsIgnoreCase(System.getProperty("cubix.mesh")) ? me.cubix.gfx.model.MeshMode.NAIVE : me.cubix.gfx.model.MeshMode.GREEDY;
+
+    // 지금 메시를 갖고 있는 월드. 바뀌면 메시를 전부 버린다
+    private World attached;
+    private final me.cubix.world.ChunkResidency.UnloadListener onUnload = this::onChunkUnload;
 
 
 
@@ -34,6 +45,15 @@ public final class Renderer3D {
                 0.1f);
 
         shader = new Shader("/shaders/block.vert", "/shaders/block.frag");
+        // 이름이 틀리거나 셰이더에서 빠졌으면 첫 프레임이 아니라 여기서 터진다
+        uProj = shader.mat4Uniform("uProj");
+        uView = shader.mat4Uniform("uView");
+        uAtlas = shader.intUniform("uAtlas");
+        uTilesPerRow = shader.intUniform("uTilesPerRow");
+        uChunkOrigins = shader.intUniform("uChunkOrigins");
+        uGranuleShift = shader.intUniform("uGranuleShift");
+        quadIndices = new me.cubix.gfx.mesh.QuadIndexBuffer();
+        arena = new ChunkArena(quadIndices, ARENA_GRANULES);
 
         camera.position.set(0, 40, 0);
         camera.yaw = (float)Math.toRadians(45);
@@ -63,11 +83,14 @@ public final class Renderer3D {
         camera.rebuildMatrices(window);
 
         shader.bind();
-        shader.setMat4("uProj", camera.proj);
-        shader.setMat4("uView", camera.view);
+        uProj.set(camera.proj);
+        uView.set(camera.view);
 
         atlas.bind(0);
-        shader.setInt("uAtlas", 0);
+        uAtlas.set(0);
+        uTilesPerRow.set(ATLAS_SIZE / TILE_SIZE);
+
+        attach(world);
 
         if (world == null) {
             renderBackground(dt); // 선택사항 (아래 함수)
@@ -83,31 +106,94 @@ public final class Renderer3D {
         shader.unbind();
     }
 
+    private void attach(World world) {
+        if (world == attached) return;
+        if (attached != null) attached.residency().removeListener(onUnload);
+        clearMeshes();
+        attached = world;
+        if (world != null) world.residency().addListener(onUnload);
+    }
+
+    // 월드가 청크를 내리면 그 GL 버퍼도 같이 해제
+    private void onChunkUnload(int cx, int cy, int cz, Chunk chunk) {
+        var slot = meshes.remove(key(cx, cy, cz));
+        if (slot != null) arena.free(slot.mesh);
+    }
+
+    // 워커에 떠 있는 결과는 슬롯이 없어지면 업로드 때 알아서 버려진다
+    private void clearMeshes() {
+        for (var slot : meshes.values()) arena.free(slot.mesh);
+        meshes.clear();
+    }
+
+    public int meshCount() { return meshes.size(); }
+
+    /** 청크 정점 arena 장부 (사용량/단편화 확인용). */
+    public me.cubix.gfx.mesh.ArenaAllocator arenaAllocator() { return arena.allocator(); }
+
+    /** 지난 프레임에 메시는 있었지만 화면 밖이라 안 그린 청크 수. */
+    public int culledChunks() { return frustum.culled(); }
+
+    /** 지난 프레임에 화면 안이지만 빈 칸으로 이어지지 않아 안 그린 청크 수. */
+    public int occludedChunks() { return occlusion.occluded(); }
+
+    public me.cubix.gfx.model.MeshMode meshMode() { return meshMode; }
+
+    /** 바꾸면 있던 메시를 전부 버리고 다음 프레임부터 새 방식으로 다시 만든다. */
+    public void setMeshMode(me.cubix.gfx.model.MeshMode mode) {
+        if (mode == meshMode) return;
+        meshMode = mode;
+        clearMeshes();
+    }
+
     public void cleanup() {
-        if (testMesh != null) testMesh.cleanup();
+        attach(null);
+        meshBuilder.close();
+        if (arena != null) arena.cleanup();
+        if (quadIndices != null) quadIndices.cleanup();
         if (atlas != null) atlas.cleanup();
         if (shader != null) shader.cleanup();
     }
 
-    public final java.util.HashMap<Long, me.cubix.gfx.mesh.ChunkMesh> meshes = new java.util.HashMap<>();
+    /**
+     * 청크 하나의 메시 상태. version은 마지막으로 요청한 빌드 번호, mesh는 arena 안 자리(첫 업로드 전이나 빈 메시면 null).
+     * 번호는 렌더러 전체에서 계속 올라가므로 슬롯을 지웠다 다시 만들어도 옛 결과와 안 겹친다.
+     */
+    private static final class MeshSlot {
+        ChunkArena.Allocation mesh;
+        int version;
+        int visibility = me.cubix.gfx.model.ChunkVisibility.ALL; // 첫 결과 전엔 다 통한다고 봄
+        int chunkVersion; // 마지막으로 요청한 스냅샷의 Chunk.meshVersion()
+    }
+
+    private final java.util.HashMap<Long, MeshSlot> meshes = new java.util.HashMap<>();
+    private final me.cubix.gfx.mesh.MeshBuildService meshBuilder = new me.cubix.gfx.mesh.MeshBuildService();
+    private int meshSeq;
+
+    private final ChunkFrustum frustum = new ChunkFrustum();
+    private final OcclusionCuller occlusion = new OcclusionCuller();
+
+    // 프레임당 업로드 예산: 메시 개수 또는 바이트 중 먼저 닿는 쪽
+    private static final int UPLOAD_MAX_MESHES = 8;
+    private static final long UPLOAD_MAX_BYTES = 2L * 1024 * 1024;
+
+    // arena 초기 크기 (granule = 256정점). 모자라면 두 배로 키운다
+    private static final int ARENA_GRANULES = 4096;
+    private static final int ORIGIN_UNIT = 1;
 
     public static long key(int cx, int cy, int cz) {
-        // 간단 패킹(범위 작다고 가정). 음수 가능하면 bias 주거나 21비트씩 쓰는 방식으로 바꾸면 됨
-        return (((long)cx) & 0x1FFFFFL) << 42
-                | (((long)cy) & 0x1FFFFFL) << 21
-                | (((long)cz) & 0x1FFFFFL);
+        return me.cubix.world.chunk.ChunkPos.pack(cx, cy, cz);
     }
 
-    private final Map<Long, ChunkMesh> meshMap = new HashMap<>();
-    private static final int RENDER_DISTANCE = 8; // 청크 반경(8이면 17x17)
 
     private void renderWorld(float dt, me.cubix.world.World world) {
         shader.bind();
-        shader.setMat4("uProj", camera.proj);
-        shader.setMat4("uView", camera.view);
+        uProj.set(camera.proj);
+        uView.set(camera.view);
 
         atlas.bind(0);
-        shader.setInt("uAtlas", 0);
+        uAtlas.set(0);
+        uTilesPerRow.set(ATLAS_SIZE / TILE_SIZE);
 
         int S = me.cubix.world.chunk.Chunk.S;
         int r = 4;
@@ -116,6 +202,12 @@ public final class Renderer3D {
         int camCz = (int)Math.floor(camera.position.z / S);
         int camCy = (int)Math.floor(camera.position.y / S); // 일단 0층만
 
+        world.setFocus(camCx, camCy, camCz);
+        world.tick();
+        meshBuilder.drain(UPLOAD_MAX_MESHES, UPLOAD_MAX_BYTES, this::uploadMesh);
+        frustum.update(camera.proj, camera.view);
+        occlusion.update(camCx, camCy, camCz, r, (x, y, z) -> visibilityOf(world, x, y, z));
+
         System.out.println("world render tick");
         for (int dz = -r; dz <= r; dz++) {
             for (int dx = -r; dx <= r; dx++) {
@@ -124,78 +216,119 @@ public final class Renderer3D {
                     int cy = camCy + dy;
                     int cz = camCz + dz;
 
-                    var chunk = world.getOrCreateChunk(cx, cy, cz);
-                    if (chunk == null) continue;
+                    // 로드 안 된 청크는 요청만 걸고 이번 프레임은 건너뜀 (I/O, 노이즈 대기 없음)
+                    var chunk = world.getChunkIfLoaded(cx, cy, cz);
+                    if (chunk == null) {
+                        world.requestChunk(cx, cy, cz);
+                        continue;
+                    }
 
                     var mesh = getOrBuildMesh(world, chunk, cx, cy, cz);
+                    if (mesh == null) continue;
+                    // 메시는 화면 밖이어도 만들어 둔다 (돌아볼 때 바로 보이게). 그리기만 건너뜀
+                    if (!frustum.isVisible(cx, cy, cz)) continue;
+                    if (!occlusion.isVisible(cx, cy, cz)) continue;
 
-                    shader.setVec3("uChunkPos", new org.joml.Vector3f(cx * S, cy * S, cz * S));
-                    mesh.draw();
+                    arena.add(mesh);
                 }
             }
         }
 
+        // 보이는 청크 전부를 draw call 하나로
+        uChunkOrigins.set(ORIGIN_UNIT);
+        uGranuleShift.set(ChunkArena.GRANULE_SHIFT);
+        arena.draw(ORIGIN_UNIT);
+
         shader.unbind();
     }
 
 
-    private ChunkMesh getOrBuildMesh(World world, Chunk chunk, int cx, int cy, int cz) {
+    /**
+     * 메시가 없거나 청크가 바뀌었으면 스냅샷을 떠서 워커에 맡기고, 지금 가진 메시(없으면 null)를 돌려준다.
+     * 새 메시는 몇 프레임 뒤 uploadMesh에서 들어온다.
+     */
+    private ChunkArena.Allocation getOrBuildMesh(World world, Chunk chunk, int cx, int cy, int cz) {
         long k = key(cx, cy, cz);
 
-        var mesh = meshes.get(k);
-        if (mesh == null) {
-            mesh = new ChunkMesh();
-            meshes.put(k, mesh);
-            rebuildChunkMesh(world, mesh, cx, cy, cz);
-            chunk.clearDirty();
-            return mesh;
-        }
+        var slot = meshes.get(k);
+        if (slot == null && !needsMesh(world, chunk, cx, cy, cz)) return null;
+        if (slot != null && slot.chunkVersion == chunk.meshVersion()) return slot.mesh;
+        // 이웃 6개가 다 올라와야 경계 면을 제대로 판단할 수 있다. 그 전엔 있던 메시를 그대로 씀
+        if (!neighborsLoaded(world, cx, cy, cz)) return slot == null ? null : slot.mesh;
 
-        if (chunk.isDirty()) {
-            rebuildChunkMesh(world, mesh, cx, cy, cz);
-            chunk.clearDirty();
+        if (slot == null) {
+            slot = new MeshSlot();
+            meshes.put(k, slot);
         }
-        return mesh;
+        slot.version = ++meshSeq;
+        slot.chunkVersion = chunk.meshVersion();
+        meshBuilder.submit(k, slot.version, snapshot(world, chunk, cx, cy, cz), meshMode);
+        return slot.mesh;
     }
 
-
-    private void rebuildChunkMesh(World world, ChunkMesh mesh, int cx, int cy, int cz) {
+    // GL 스레드. 그 사이 다시 요청됐거나 내려간 청크의 결과는 버린다
+    private boolean uploadMesh(me.cubix.gfx.mesh.MeshBuildService.Result r) {
+        var slot = meshes.get(r.key());
+        if (slot == null || r.version() != slot.version) return false;
 
         int S = me.cubix.world.chunk.Chunk.S;
-        int atlasSize = 1024;
-        int tileSize  = 64;
-
-        // 최악의 경우 모든 블록이 노출: S*S*S*6 faces
-        // 근데 너무 크게 잡으면 메모리 큼 → 일단 “겉면 예상치”로 대충
-        int maxFaces = S * S * 6 * 2; // 임시(충분히 크게)
-        var b = new me.cubix.gfx.model.ChunkBuilder(atlasSize, tileSize, maxFaces);
-
-        int baseX = cx * S;
-        int baseY = cy * S;
-        int baseZ = cz * S;
-
-        for (int lz = 0; lz < S; lz++)
-            for (int ly = 0; ly < S; ly++)
-                for (int lx = 0; lx < S; lx++) {
-                    int gx = baseX + lx;
-                    int gy = baseY + ly;
-                    int gz = baseZ + lz;
-
-                    short id = world.getBlock(gx, gy, gz);
-                    if (id == me.cubix.world.block.BlockId.AIR) continue;
-
-                    int tile = me.cubix.gfx.model.BlockTiles.tileFor(id);
-
-                    // 이웃이 AIR면 그 면은 보인다
-                    if (world.getBlock(gx+1, gy, gz) == me.cubix.world.block.BlockId.AIR) b.addFace(tile, me.cubix.gfx.model.ChunkBuilder.POS_X, lx, ly, lz);
-                    if (world.getBlock(gx-1, gy, gz) == me.cubix.world.block.BlockId.AIR) b.addFace(tile, me.cubix.gfx.model.ChunkBuilder.NEG_X, lx, ly, lz);
-                    if (world.getBlock(gx, gy+1, gz) == me.cubix.world.block.BlockId.AIR) b.addFace(tile, me.cubix.gfx.model.ChunkBuilder.POS_Y, lx, ly, lz);
-                    if (world.getBlock(gx, gy-1, gz) == me.cubix.world.block.BlockId.AIR) b.addFace(tile, me.cubix.gfx.model.ChunkBuilder.NEG_Y, lx, ly, lz);
-                    if (world.getBlock(gx, gy, gz+1) == me.cubix.world.block.BlockId.AIR) b.addFace(tile, me.cubix.gfx.model.ChunkBuilder.POS_Z, lx, ly, lz);
-                    if (world.getBlock(gx, gy, gz-1) == me.cubix.world.block.BlockId.AIR) b.addFace(tile, me.cubix.gfx.model.ChunkBuilder.NEG_Z, lx, ly, lz);
-                }
+        long k = r.key();
+        arena.free(slot.mesh);
+        slot.mesh = arena.upload(r.built().verts(),
+                me.cubix.world.chunk.ChunkPos.unpackX(k) * S,
+                me.cubix.world.chunk.ChunkPos.unpackY(k) * S,
+                me.cubix.world.chunk.ChunkPos.unpackZ(k) * S);
+        slot.visibility = r.visibility();
+        return true;
+    }
+
+    // 메시 슬롯이 없는 청크는 단일 값이면 바로 알 수 있고, 나머지(미로드 포함)는 통한다고 본다
+    private int visibilityOf(World world, int cx, int cy, int cz) {
+        var slot = meshes.get(key(cx, cy, cz));
+        if (slot != null) return slot.visibility;
+        Chunk c = world.getChunkIfLoaded(cx, cy, cz);
+        if (c != null && c.isUniform() && c.uniformId() != me.cubix.world.block.BlockId.AIR)
+            return me.cubix.gfx.model.ChunkVisibility.NONE;
+        return me.cubix.gfx.model.ChunkVisibility.ALL;
+    }
 
-        var built = b.build();
-        mesh.upload(built.verts(), built.inds());
+    private static me.cubix.gfx.model.ChunkSnapshot snapshot(World world, Chunk chunk, int cx, int cy, int cz) {
+        Chunk[] n = new Chunk[NEIGHBORS.length];
+        for (int i = 0; i < n.length; i++) {
+            int[] d = NEIGHBORS[i];
+            n[i] = world.getChunkIfLoaded(cx + d[0], cy + d[1], cz + d[2]);
+        }
+        return me.cubix.gfx.model.ChunkSnapshot.capture(chunk, n);
+    }
+
+
+    /**
+     * 단일 값 청크는 볼 것이 없으면 메시(GL 버퍼)를 아예 안 만든다.
+     * 전부 공기이거나, 꽉 찬 고체인데 6면 이웃도 전부 공기 없는 단일 값 청크면 면이 하나도 안 나온다.
+     */
+    private static boolean needsMesh(World world, Chunk chunk, int cx, int cy, int cz) {
+        if (!chunk.isUniform()) return true;
+        if (chunk.uniformId() == me.cubix.world.block.BlockId.AIR) return false;
+        for (int[] d : NEIGHBORS) {
+            Chunk n = world.getChunkIfLoaded(cx + d[0], cy + d[1], cz + d[2]);
+            if (n == null || !n.isUniform() || n.uniformId() == me.cubix.world.block.BlockId.AIR) return true;
+        }
+        return false;
     }
-}
\ No newline at end of file
+
+    private static boolean neighborsLoaded(World world, int cx, int cy, int cz) {
+        boolean all = true;
+        for (int[] d : NEIGHBORS) {
+            int nx = cx + d[0], ny = cy + d[1], nz = cz + d[2];
+            if (world.getChunkIfLoaded(nx, ny, nz) == null) {
+                world.requestChunk(nx, ny, nz);
+                all = false;
+            }
+        }
+        return all;
+    }
+
+    private static final int[][] NEIGHBORS = {
+            {1, 0, 0}, {-1, 0, 0}, {0, 1, 0}, {0, -1, 0}, {0, 0, 1}, {0, 0, -1}
+    };
+}
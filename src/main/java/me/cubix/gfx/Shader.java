@@ -2,18 +2,27 @@ package me.cubix.gfx;
 
 import org.joml.Matrix4f;
 import org.joml.Vector3f;
+import org.lwjgl.BufferUtils;
 import org.lwjgl.system.MemoryStack;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
 
 import static org.lwjgl.opengl.GL33.*;
 
 public final class Shader {
     private final int programId;
 
+    // 링크 직후 glGetActiveUniform으로 한 번에 채운다. 이후 이름 조회는 GL을 안 탄다
+    private final Map<String, Active> uniforms = new HashMap<>();
+
+    private record Active(int location, int type, int size) {}
+
     public Shader(String vertexResourcePath, String fragmentResourcePath) {
         String vs = readResource(vertexResourcePath);
         String fs = readResource(fragmentResourcePath);
@@ -35,6 +44,25 @@ public final class Shader {
         glDetachShader(programId, fId);
         glDeleteShader(vId);
         glDeleteShader(fId);
+
+        collectUniforms();
+    }
+
+    private void collectUniforms() {
+        int count = glGetProgrami(programId, GL_ACTIVE_UNIFORMS);
+        int maxLen = glGetProgrami(programId, GL_ACTIVE_UNIFORM_MAX_LENGTH);
+        try (MemoryStack stack = MemoryStack.stackPush()) {
+            IntBuffer size = stack.mallocInt(1);
+            IntBuffer type = stack.mallocInt(1);
+            for (int i = 0; i < count; i++) {
+                String name = glGetActiveUniform(programId, i, maxLen, size, type);
+                // 배열은 "name[0]"으로 나온다
+                if (name.endsWith("[0]")) name = name.substring(0, name.length() - 3);
+                int loc = glGetUniformLocation(programId, name);
+                if (loc < 0) continue; // 유니폼 블록 멤버 등
+                uniforms.put(name, new Active(loc, type.get(0), size.get(0)));
+            }
+        }
     }
 
     public void bind() { glUseProgram(programId); }
@@ -43,28 +71,104 @@ public final class Shader {
     public void cleanup() { glDeleteProgram(programId); }
 
     public void setInt(String name, int v) {
-        glUniform1i(uniform(name), v);
+        glUniform1i(active(name).location, v);
     }
 
     public void setVec3(String name, Vector3f v) {
-        glUniform3f(uniform(name), v.x, v.y, v.z);
+        glUniform3f(active(name).location, v.x, v.y, v.z);
     }
 
     public void setMat4(String name, Matrix4f m) {
         try (MemoryStack stack = MemoryStack.stackPush()) {
             FloatBuffer fb = stack.mallocFloat(16);
             m.get(fb);
-            glUniformMatrix4fv(uniform(name), false, fb);
+            glUniformMatrix4fv(active(name).location, false, fb);
         }
     }
 
-    private int uniform(String name) {
-        int loc = glGetUniformLocation(programId, name);
-        if (loc < 0) {
+    /** int / bool / 샘플러 유니폼. 이름이나 타입이 안 맞으면 여기서 바로 터진다 (init 때 받아둘 것). */
+    public IntUniform intUniform(String name) {
+        Active a = active(name);
+        if (!isIntLike(a.type)) throw typeMismatch(name, "int/sampler", a.type);
+        return new IntUniform(a.location);
+    }
+
+    public Vec3Uniform vec3Uniform(String name) {
+        Active a = active(name);
+        if (a.type != GL_FLOAT_VEC3) throw typeMismatch(name, "vec3", a.type);
+        return new Vec3Uniform(a.location);
+    }
+
+    public Mat4Uniform mat4Uniform(String name) {
+        Active a = active(name);
+        if (a.type != GL_FLOAT_MAT4) throw typeMismatch(name, "mat4", a.type);
+        return new Mat4Uniform(a.location);
+    }
+
+    /** 셰이더가 실제로 쓰는(최적화로 안 빠진) 유니폼인지. */
+    public boolean hasUniform(String name) {
+        return uniforms.containsKey(name);
+    }
+
+    private Active active(String name) {
+        Active a = uniforms.get(name);
+        if (a == null) {
             // 실수 방지용: 유니폼 이름 틀리면 바로 알게
-            throw new IllegalArgumentException("Uniform not found: " + name);
+            throw new IllegalArgumentException("Uniform not found: " + name + " (active: " + uniforms.keySet() + ")");
+        }
+        return a;
+    }
+
+    private static boolean isIntLike(int type) {
+        return switch (type) {
+            case GL_INT, GL_BOOL, GL_SAMPLER_2D, GL_SAMPLER_BUFFER, GL_INT_SAMPLER_BUFFER,
+                 GL_UNSIGNED_INT_SAMPLER_BUFFER, GL_SAMPLER_2D_ARRAY -> true;
+            default -> false;
+        };
+    }
+
+    private static IllegalArgumentException typeMismatch(String name, String want, int type) {
+        return new IllegalArgumentException("Uniform " + name + " is not " + want + " (GL type 0x" + Integer.toHexString(type) + ")");
+    }
+
+    // 핸들은 위치만 들고 있어서 set할 때 문자열 조회도 할당도 없다. 값 설정은 셰이더가 bind된 상태에서
+
+    public static final class IntUniform {
+        private final int location;
+        private boolean known;
+        private int last;
+
+        private IntUniform(int location) { this.location = location; }
+
+        /** 값이 같으면 GL 호출을 생략한다 (유니폼 값은 프로그램에 남아있으므로). */
+        public void set(int v) {
+            if (known && last == v) return;
+            glUniform1i(location, v);
+            last = v;
+            known = true;
+        }
+    }
+
+    public static final class Vec3Uniform {
+        private final int location;
+
+        private Vec3Uniform(int location) { this.location = location; }
+
+        public void set(float x, float y, float z) { glUniform3f(location, x, y, z); }
+
+        public void set(Vector3f v) { glUniform3f(location, v.x, v.y, v.z); }
+    }
+
+    public static final class Mat4Uniform {
+        private final int location;
+        private final FloatBuffer buf = BufferUtils.createFloatBuffer(16);
+
+        private Mat4Uniform(int location) { this.location = location; }
+
+        public void set(Matrix4f m) {
+            m.get(buf);
+            glUniformMatrix4fv(location, false, buf);
         }
-        return loc;
     }
 
     private static int compile(int type, String src) {
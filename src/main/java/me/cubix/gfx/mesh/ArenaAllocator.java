@@ -0,0 +1,101 @@
+package me.cubix.gfx.mesh;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 큰 버퍼 하나를 granule 단위로 나눠 주는 free-list 할당기. GL은 안 만지고 장부만 관리한다.
+ * first-fit이고, 해제할 때 앞뒤 빈 구간과 합친다.
+ */
+public final class ArenaAllocator {
+    // 빈 구간: 시작 -> 길이 (시작 순 정렬)
+    private final TreeMap<Integer, Integer> free = new TreeMap<>();
+    // 쓰는 구간: 시작 -> 길이
+    private final Map<Integer, Integer> used = new HashMap<>();
+    private int capacity;
+    private int usedGranules;
+
+    public ArenaAllocator(int capacity) {
+        this.capacity = capacity;
+        if (capacity > 0) free.put(0, capacity);
+    }
+
+    /** 시작 granule을 돌려준다. 자리가 없으면 -1 (grow 후 다시 시도). */
+    public int allocate(int granules) {
+        if (granules <= 0) throw new IllegalArgumentException("granules=" + granules);
+        for (Map.Entry<Integer, Integer> e : free.entrySet()) {
+            int len = e.getValue();
+            if (len < granules) continue;
+
+            int start = e.getKey();
+            free.remove(start);
+            if (len > granules) free.put(start + granules, len - granules);
+            used.put(start, granules);
+            usedGranules += granules;
+            return start;
+        }
+        return -1;
+    }
+
+    public void free(int start) {
+        Integer len = used.remove(start);
+        if (len == null) throw new IllegalArgumentException("not allocated: " + start);
+        usedGranules -= len;
+
+        int s = start, l = len;
+        Map.Entry<Integer, Integer> prev = free.floorEntry(s);
+        if (prev != null && prev.getKey() + prev.getValue() == s) {
+            free.remove(prev.getKey());
+            s = prev.getKey();
+            l += prev.getValue();
+        }
+        Integer nextLen = free.get(start + len);
+        if (nextLen != null) {
+            free.remove(start + len);
+            l += nextLen;
+        }
+        free.put(s, l);
+    }
+
+    /** 뒤쪽에 빈 공간을 붙인다. 기존 할당 위치는 그대로. */
+    public void grow(int newCapacity) {
+        if (newCapacity <= capacity) return;
+        int s = capacity, l = newCapacity - capacity;
+        Map.Entry<Integer, Integer> last = free.lastEntry();
+        if (last != null && last.getKey() + last.getValue() == capacity) {
+            free.remove(last.getKey());
+            s = last.getKey();
+            l += last.getValue();
+        }
+        free.put(s, l);
+        capacity = newCapacity;
+    }
+
+    public int sizeOf(int start) {
+        Integer len = used.get(start);
+        return len == null ? 0 : len;
+    }
+
+    public int capacity() { return capacity; }
+
+    public int usedGranules() { return usedGranules; }
+
+    public int allocations() { return used.size(); }
+
+    /** 빈 구간 개수 (단편화 지표). */
+    public int freeBlocks() { return free.size(); }
+
+    public int largestFree() {
+        int max = 0;
+        for (int len : free.values()) max = Math.max(max, len);
+        return max;
+    }
+
+    public void clear() {
+        free.clear();
+        used.clear();
+        usedGranules = 0;
+        if (capacity > 0) free.put(0, capacity);
+    }
+}
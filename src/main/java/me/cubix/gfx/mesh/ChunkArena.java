@@ -0,0 +1,202 @@
+package me.cubix.gfx.mesh;
+
+import org.lwjgl.PointerBuffer;
+import org.lwjgl.system.MemoryUtil;
+
+import java.nio.IntBuffer;
+
+import static org.lwjgl.opengl.GL33.*;
+
+/**
+ * 모든 청크 메시가 같이 쓰는 VBO 하나 + 청크 원점 TBO.
+ *
+ * 정점은 granule(2^GRANULE_SHIFT 정점) 단위로 자리를 받고, 한 granule에는 한 청크 정점만 들어간다.
+ * 그래서 셰이더가 gl_VertexID >> GRANULE_SHIFT 로 TBO에서 그 청크 원점을 꺼낼 수 있다.
+ * 인덱스는 공용 QuadIndexBuffer를 쓰고 청크 위치는 basevertex로 준다.
+ * 프레임마다 {@link #add}로 모은 뒤 {@link #draw}에서 glMultiDrawElementsBaseVertex 한 번.
+ *
+ * GL 3.3 기준이라 SSBO / indirect 대신 TBO + MultiDrawElementsBaseVertex.
+ */
+public final class ChunkArena {
+    public static final int GRANULE_SHIFT = 8;
+    public static final int GRANULE_VERTS = 1 << GRANULE_SHIFT;
+
+    /** 청크 메시 하나의 자리. */
+    public static final class Allocation {
+        final int start;     // granule
+        final int quadCount;
+
+        Allocation(int start, int quadCount) {
+            this.start = start;
+            this.quadCount = quadCount;
+        }
+
+        public int quadCount() { return quadCount; }
+    }
+
+    private final ArenaAllocator alloc;
+    private final int vao;
+    private final int originTex;
+    private int vbo;
+    private int originBuf;
+
+    // CPU 쪽 원점 사본. 버퍼를 키울 때 통째로 다시 올린다 (granule당 ivec4)
+    private IntBuffer origins;
+
+    // 프레임마다 모으는 draw 목록
+    private IntBuffer counts;
+    private IntBuffer baseVertex;
+    private PointerBuffer offsets;
+
+    public ChunkArena(QuadIndexBuffer quads, int initialGranules) {
+        alloc = new ArenaAllocator(initialGranules);
+
+        vao = glGenVertexArrays();
+        vbo = glGenBuffers();
+        glBindBuffer(GL_ARRAY_BUFFER, vbo);
+        glBufferData(GL_ARRAY_BUFFER, (long) initialGranules * GRANULE_VERTS * Integer.BYTES, GL_DYNAMIC_DRAW);
+
+        glBindVertexArray(vao);
+        quads.bind();
+        bindAttributes();
+        glBindVertexArray(0);
+
+        origins = MemoryUtil.memCallocInt(initialGranules * 4);
+        originBuf = glGenBuffers();
+        glBindBuffer(GL_TEXTURE_BUFFER, originBuf);
+        glBufferData(GL_TEXTURE_BUFFER, origins, GL_DYNAMIC_DRAW);
+        originTex = glGenTextures();
+        glBindTexture(GL_TEXTURE_BUFFER, originTex);
+        glTexBuffer(GL_TEXTURE_BUFFER, GL_RGBA32I, originBuf);
+        glBindTexture(GL_TEXTURE_BUFFER, 0);
+        glBindBuffer(GL_TEXTURE_BUFFER, 0);
+
+        counts = MemoryUtil.memAllocInt(256);
+        baseVertex = MemoryUtil.memAllocInt(256);
+        offsets = MemoryUtil.memCallocPointer(256);
+    }
+
+    private void bindAttributes() {
+        glBindBuffer(GL_ARRAY_BUFFER, vbo);
+        // 정점 = 패킹된 uint 하나 (ChunkBuilder 참고). 정수 그대로 넘겨야 해서 IPointer
+        glVertexAttribIPointer(0, 1, GL_UNSIGNED_INT, Integer.BYTES, 0L);
+        glEnableVertexAttribArray(0);
+    }
+
+    /** 정점(사각형당 4개)을 올리고 자리를 돌려준다. 빈 메시는 null. (ox,oy,oz) = 청크 원점 월드 좌표. */
+    public Allocation upload(IntBuffer verts, int ox, int oy, int oz) {
+        int n = verts.remaining();
+        if (n == 0) return null;
+
+        int granules = (n + GRANULE_VERTS - 1) >> GRANULE_SHIFT;
+        int start = alloc.allocate(granules);
+        while (start < 0) {
+            grow(Math.max(alloc.capacity() * 2, alloc.capacity() + granules));
+            start = alloc.allocate(granules);
+        }
+
+        glBindBuffer(GL_ARRAY_BUFFER, vbo);
+        glBufferSubData(GL_ARRAY_BUFFER, (long) start * GRANULE_VERTS * Integer.BYTES, verts);
+
+        for (int g = start; g < start + granules; g++) {
+            origins.put(g * 4, ox).put(g * 4 + 1, oy).put(g * 4 + 2, oz);
+        }
+        glBindBuffer(GL_TEXTURE_BUFFER, originBuf);
+        glBufferSubData(GL_TEXTURE_BUFFER, (long) start * 4 * Integer.BYTES,
+                origins.slice(start * 4, granules * 4));
+        glBindBuffer(GL_TEXTURE_BUFFER, 0);
+
+        return new Allocation(start, n / 4);
+    }
+
+    public void free(Allocation a) {
+        if (a != null) alloc.free(a.start);
+    }
+
+    // 새 버퍼로 옮긴다. 기존 자리(granule 번호)는 그대로 유지
+    private void grow(int granules) {
+        int oldBytes = alloc.capacity() * GRANULE_VERTS * Integer.BYTES;
+        int nvbo = glGenBuffers();
+        glBindBuffer(GL_COPY_WRITE_BUFFER, nvbo);
+        glBufferData(GL_COPY_WRITE_BUFFER, (long) granules * GRANULE_VERTS * Integer.BYTES, GL_DYNAMIC_DRAW);
+        glBindBuffer(GL_COPY_READ_BUFFER, vbo);
+        glCopyBufferSubData(GL_COPY_READ_BUFFER, GL_COPY_WRITE_BUFFER, 0, 0, oldBytes);
+        glBindBuffer(GL_COPY_READ_BUFFER, 0);
+        glBindBuffer(GL_COPY_WRITE_BUFFER, 0);
+        glDeleteBuffers(vbo);
+        vbo = nvbo;
+
+        glBindVertexArray(vao);
+        bindAttributes();
+        glBindVertexArray(0);
+
+        IntBuffer o = MemoryUtil.memCallocInt(granules * 4);
+        MemoryUtil.memCopy(origins, o);
+        MemoryUtil.memFree(origins);
+        origins = o;
+        glBindBuffer(GL_TEXTURE_BUFFER, originBuf);
+        glBufferData(GL_TEXTURE_BUFFER, origins, GL_DYNAMIC_DRAW);
+        glBindTexture(GL_TEXTURE_BUFFER, originTex);
+        glTexBuffer(GL_TEXTURE_BUFFER, GL_RGBA32I, originBuf);
+        glBindTexture(GL_TEXTURE_BUFFER, 0);
+        glBindBuffer(GL_TEXTURE_BUFFER, 0);
+
+        alloc.grow(granules);
+    }
+
+    /** 이번 프레임 그릴 목록에 넣는다. */
+    public void add(Allocation a) {
+        if (a == null) return;
+        if (!counts.hasRemaining()) growDrawList();
+        counts.put(a.quadCount * 6);
+        baseVertex.put(a.start << GRANULE_SHIFT);
+        offsets.put(0L);
+    }
+
+    private void growDrawList() {
+        int n = counts.position();
+        int cap = counts.capacity() * 2;
+        counts = MemoryUtil.memRealloc(counts, cap);
+        baseVertex = MemoryUtil.memRealloc(baseVertex, cap);
+        offsets = MemoryUtil.memRealloc(offsets, cap);
+        counts.clear().position(n);
+        baseVertex.clear().position(n);
+        offsets.clear().position(n);
+    }
+
+    /** 모은 목록을 한 번에 그리고 비운다. 원점 TBO는 unit 텍스처 유닛에 묶는다. */
+    public int draw(int unit) {
+        int n = counts.position();
+        if (n > 0) {
+            glActiveTexture(GL_TEXTURE0 + unit);
+            glBindTexture(GL_TEXTURE_BUFFER, originTex);
+
+            counts.flip();
+            baseVertex.flip();
+            offsets.flip();
+            glBindVertexArray(vao);
+            glMultiDrawElementsBaseVertex(GL_TRIANGLES, counts, GL_UNSIGNED_SHORT, offsets, baseVertex);
+            glBindVertexArray(0);
+
+            glBindTexture(GL_TEXTURE_BUFFER, 0);
+            glActiveTexture(GL_TEXTURE0);
+        }
+        counts.clear();
+        baseVertex.clear();
+        offsets.clear();
+        return n;
+    }
+
+    public ArenaAllocator allocator() { return alloc; }
+
+    public void cleanup() {
+        glDeleteBuffers(vbo);
+        glDeleteBuffers(originBuf);
+        glDeleteTextures(originTex);
+        glDeleteVertexArrays(vao);
+        MemoryUtil.memFree(origins);
+        MemoryUtil.memFree(counts);
+        MemoryUtil.memFree(baseVertex);
+        MemoryUtil.memFree(offsets);
+    }
+}
@@ -0,0 +1,131 @@
+package me.cubix.gfx.mesh;
+
+import me.cubix.gfx.model.ChunkBuilder;
+import me.cubix.gfx.model.ChunkMesher;
+import me.cubix.gfx.model.ChunkSnapshot;
+import me.cubix.gfx.model.ChunkVisibility;
+import me.cubix.gfx.model.MeshMode;
+
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 청크 메시(정점 데이터)를 워커 스레드에서 만든다.
+ * 입력은 메인 스레드에서 뜬 {@link ChunkSnapshot}이라 워커는 World를 전혀 안 만진다.
+ * 끝난 결과는 큐에 쌓이고, GL 스레드가 {@link #drain}으로 프레임당 예산만큼 꺼내 업로드한다.
+ */
+public final class MeshBuildService implements AutoCloseable {
+    /**
+     * version은 요청 쪽이 매긴 번호. 업로드할 때 최신 요청보다 낮으면 버린다.
+     * visibility는 면 연결 마스크 ({@link ChunkVisibility}).
+     */
+    public record Result(long key, int version, ChunkBuilder.Built built, int visibility) {
+        public long bytes() {
+            return (long) built.verts().remaining() * Integer.BYTES;
+        }
+    }
+
+    /** 결과를 실제로 올렸으면 true. false(오래된 결과 등)는 예산에 안 센다. */
+    @FunctionalInterface
+    public interface Uploader {
+        boolean upload(Result r);
+    }
+
+    // 워커 스레드마다 빌더 하나를 계속 재사용한다. close() 때 한꺼번에 해제하려고 따로 모아둠
+    private final Queue<ChunkBuilder> builders = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<ChunkBuilder> localBuilder = ThreadLocal.withInitial(() -> {
+        ChunkBuilder b = new ChunkBuilder(INITIAL_QUADS);
+        builders.add(b);
+        return b;
+    });
+
+    // 보통 청크는 수백 면이면 충분하다. 넘치면 빌더가 알아서 늘림
+    private static final int INITIAL_QUADS = 2048;
+
+    private final ThreadPoolExecutor pool;
+    private final Queue<Result> done = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public MeshBuildService() {
+        int workers = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger n = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(workers, workers, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                r -> {
+                    Thread t = new Thread(r, "mesh-builder-" + n.incrementAndGet());
+                    t.setDaemon(true);
+                    t.setPriority(Thread.NORM_PRIORITY - 1);
+                    return t;
+                });
+    }
+
+    public void submit(long key, int version, ChunkSnapshot snapshot, MeshMode mode) {
+        inFlight.incrementAndGet();
+        pool.execute(() -> {
+            try {
+                var b = localBuilder.get();
+                b.reset();
+                ChunkMesher.build(mode, snapshot, b);
+                int visibility = ChunkVisibility.compute(snapshot);
+                done.add(new Result(key, version, b.build(), visibility));
+            } catch (Throwable t) {
+                t.printStackTrace();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        });
+    }
+
+    /**
+     * GL 스레드 전용. 메시 maxMeshes개 또는 maxBytes를 넘기 전까지 올린다 (최소 1개).
+     * 결과의 off-heap 버퍼는 uploader가 돌아온 뒤 여기서 해제한다.
+     */
+    public int drain(int maxMeshes, long maxBytes, Uploader uploader) {
+        int meshes = 0;
+        long bytes = 0;
+        Result r;
+        while (meshes < maxMeshes && bytes < maxBytes && (r = done.poll()) != null) {
+            long size = r.bytes();
+            boolean uploaded;
+            try {
+                uploaded = uploader.upload(r);
+            } finally {
+                r.built().free();
+            }
+            if (!uploaded) continue;
+            meshes++;
+            bytes += size;
+        }
+        return meshes;
+    }
+
+    /** 워커에서 돌고 있거나 대기 중인 작업 수. */
+    public int inFlight() { return inFlight.get(); }
+
+    /** 아직 업로드 안 된 완료 결과 수. */
+    public int readyCount() { return done.size(); }
+
+    /**
+     * 대기 중인 작업은 버리고 돌던 워커가 다 끝난 뒤에만 빌더/결과를 해제한다.
+     * 메싱은 인터럽트에 반응하지 않으므로, 안 끝났는데 해제하면 워커가 쓰고 있는 네이티브 메모리를 푸는 셈이다.
+     * 그래서 끝날 때까지 다시 기다리고, 그래도 못 기다리면(인터럽트) 해제를 포기하고 새게 둔다.
+     */
+    @Override
+    public void close() {
+        pool.shutdownNow();
+        try {
+            while (!pool.awaitTermination(5, TimeUnit.SECONDS)) {
+                System.err.println("[MESH] waiting for mesh builders to finish...");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            System.err.println("[MESH] interrupted while closing, leaking mesh builder memory");
+            return;
+        }
+        Result r;
+        while ((r = done.poll()) != null) r.built().free();
+        ChunkBuilder b;
+        while ((b = builders.poll()) != null) b.close();
+    }
+}
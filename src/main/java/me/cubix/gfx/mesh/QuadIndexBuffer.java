@@ -0,0 +1,42 @@
+package me.cubix.gfx.mesh;
+
+import me.cubix.gfx.model.ChunkBuilder;
+import org.lwjgl.BufferUtils;
+
+import java.nio.ShortBuffer;
+
+import static org.lwjgl.opengl.GL33.*;
+
+/**
+ * 모든 청크 VAO가 같이 쓰는 인덱스 버퍼. 사각형 q마다 4q+(0,1,2, 0,2,3).
+ * 청크 하나의 최대 면 수({@link ChunkBuilder#MAX_QUADS})만큼 미리 만들어 둔다.
+ */
+public final class QuadIndexBuffer {
+    public static final int MAX_QUADS = ChunkBuilder.MAX_QUADS;
+
+    private final int ebo;
+
+    public QuadIndexBuffer() {
+        ShortBuffer inds = BufferUtils.createShortBuffer(MAX_QUADS * 6);
+        for (int q = 0; q < MAX_QUADS; q++) {
+            short v = (short) (q * 4);
+            inds.put(v).put((short) (v + 1)).put((short) (v + 2));
+            inds.put(v).put((short) (v + 2)).put((short) (v + 3));
+        }
+        inds.flip();
+
+        ebo = glGenBuffers();
+        glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, ebo);
+        glBufferData(GL_ELEMENT_ARRAY_BUFFER, inds, GL_STATIC_DRAW);
+        glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, 0);
+    }
+
+    /** VAO가 바인드된 상태에서 불러야 VAO에 붙는다. */
+    public void bind() {
+        glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, ebo);
+    }
+
+    public void cleanup() {
+        glDeleteBuffers(ebo);
+    }
+}
@@ -0,0 +1,7 @@
+package me.cubix.gfx.model;
+
+/** 메셔 입력. 청크 로컬 좌표로 읽되 -1 과 S (이웃 청크 경계 한 칸)까지 읽을 수 있어야 한다. */
+@FunctionalInterface
+public interface BlockSource {
+    short get(int lx, int ly, int lz);
+}
@@ -1,75 +1,121 @@
 // me.cubix.gfx.model.ChunkBuilder.java
 package me.cubix.gfx.model;
 
-import org.lwjgl.BufferUtils;
+import me.cubix.world.chunk.Chunk;
+import org.lwjgl.system.MemoryUtil;
 
-import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
 
-public final class ChunkBuilder {
+/**
+ * 면을 모아 정점 버퍼를 만든다. 작업 버퍼는 off-heap(memAlloc)이고 모자라면 두 배씩 늘린다.
+ * 한 번 만든 빌더는 {@link #reset()}으로 재사용하고, 다 쓰면 {@link #close()}로 직접 해제해야 한다 (GC가 안 치움).
+ */
+public final class ChunkBuilder implements AutoCloseable {
     public static final int POS_X = 0, NEG_X = 1, POS_Y = 2, NEG_Y = 3, POS_Z = 4, NEG_Z = 5;
 
-    private final int atlasSize, tileSize;
-    private FloatBuffer v;
-    private IntBuffer  i;
+    /**
+     * 정점 하나 = int 하나.
+     * bit 0-4 x, 5-9 y, 10-14 z (0..16), 15-17 면, 18-27 타일. UV는 셰이더가 위치와 면으로 계산한다.
+     */
+    public static final int POS_BITS = 5;
+    public static final int FACE_SHIFT = 15;
+    public static final int TILE_SHIFT = 18;
+    public static final int MAX_TILE = (1 << 10) - 1;
+
+    /**
+     * 한 청크에서 나올 수 있는 면의 상한. 블록 사이 경계면 3*16*16*15 + 바깥 6*16*16.
+     * 정점으로 52224개라 인덱스가 unsigned short에 들어간다. 공용 인덱스 버퍼도 이 크기로 만든다.
+     */
+    public static final int MAX_QUADS = 3 * Chunk.S * Chunk.S * (Chunk.S - 1) + 6 * Chunk.S * Chunk.S;
+
+    private IntBuffer v;
     private int vertCount = 0;
 
-    public record Built(FloatBuffer verts, IntBuffer inds) {}
+    /**
+     * 인덱스는 없다. 사각형마다 정점 4개 순서가 고정이라 공용 인덱스 버퍼(QuadIndexBuffer)로 그린다.
+     * verts는 딱 맞는 크기의 off-heap 복사본이라 업로드(또는 폐기) 후 {@link #free()} 해야 한다.
+     */
+    public record Built(IntBuffer verts, int quadCount) {
+        public void free() { MemoryUtil.memFree(verts); }
+    }
+
+    public ChunkBuilder(int initialFaces) {
+        // face 1개 = 4 verts
+        this.v = MemoryUtil.memAllocInt(Math.max(1, initialFaces) * 4);
+    }
+
+    /** 쌓인 면을 버리고 처음부터. 버퍼는 그대로 둔다. */
+    public void reset() {
+        v.clear();
+        vertCount = 0;
+    }
 
-    public ChunkBuilder(int atlasSize, int tileSize, int maxFaces) {
-        this.atlasSize = atlasSize;
-        this.tileSize  = tileSize;
-        // face 1개 = 4 verts, 6 inds
-        this.v = BufferUtils.createFloatBuffer(maxFaces * 4 * 5);
-        this.i = BufferUtils.createIntBuffer(maxFaces * 6);
+    @Override
+    public void close() {
+        if (v != null) MemoryUtil.memFree(v);
+        v = null;
     }
 
     public void addFace(int tile, int face, int x, int y, int z) {
-        if (tile < 0) return;
+        addQuad(tile, face, x, y, z, 1, 1);
+    }
 
-        float du = (float)tileSize / (float)atlasSize;
-        int tilesPerRow = atlasSize / tileSize;
+    /**
+     * (x,y,z) 블록의 face 면에서 시작해 a x b 블록 크기의 사각형.
+     * a/b 축: X면 = (z, y), Y면 = (x, z), Z면 = (x, y). 셰이더도 이 축으로 UV를 잡아서 텍스처가 블록마다 반복된다.
+     */
+    public void addQuad(int tile, int face, int x, int y, int z, int a, int b) {
+        if (tile < 0 || tile > MAX_TILE) return;
 
-        float u0 = (tile % tilesPerRow) * du;
-        float v0 = (tile / tilesPerRow) * du;
-        float u1 = u0 + du;
-        float v1 = v0 + du;
+        int x0 = x, y0 = y, z0 = z;
+        int x1p, y1p, z1p;
 
-        // 로컬 큐브 좌표 (x..x+1)
-        float x0 = x, x1p = x + 1;
-        float y0 = y, y1p = y + 1;
-        float z0 = z, z1p = z + 1;
+        switch (face) {
+            case POS_X, NEG_X -> { x1p = x + 1; z1p = z + a; y1p = y + b; }
+            case POS_Y, NEG_Y -> { y1p = y + 1; x1p = x + a; z1p = z + b; }
+            default           -> { z1p = z + 1; x1p = x + a; y1p = y + b; }
+        }
+
+        int fb = (face << FACE_SHIFT) | (tile << TILE_SHIFT);
 
         // 면별 4점(시계/반시계는 네 셰이더/컬링에 맞게, 지금은 CCW 가정)
         switch (face) {
-            case POS_X -> quad(x1p,y0,z0,  x1p,y0,z1p,  x1p,y1p,z1p,  x1p,y1p,z0,  u0,v0,u1,v1);
-            case NEG_X -> quad(x0,y0,z1p,  x0,y0,z0,   x0,y1p,z0,   x0,y1p,z1p, u0,v0,u1,v1);
-            case POS_Y -> quad(x0,y1p,z0,  x1p,y1p,z0, x1p,y1p,z1p, x0,y1p,z1p, u0,v0,u1,v1);
-            case NEG_Y -> quad(x0,y0,z1p,  x1p,y0,z1p, x1p,y0,z0,   x0,y0,z0,   u0,v0,u1,v1);
-            case POS_Z -> quad(x0,y0,z1p,  x1p,y0,z1p, x1p,y1p,z1p, x0,y1p,z1p, u0,v0,u1,v1);
-            case NEG_Z -> quad(x1p,y0,z0,  x0,y0,z0,   x0,y1p,z0,   x1p,y1p,z0,  u0,v0,u1,v1);
+            case POS_X -> quad(fb, x1p,y0,z0,  x1p,y0,z1p,  x1p,y1p,z1p,  x1p,y1p,z0);
+            case NEG_X -> quad(fb, x0,y0,z1p,  x0,y0,z0,   x0,y1p,z0,   x0,y1p,z1p);
+            case POS_Y -> quad(fb, x0,y1p,z0,  x1p,y1p,z0, x1p,y1p,z1p, x0,y1p,z1p);
+            case NEG_Y -> quad(fb, x0,y0,z1p,  x1p,y0,z1p, x1p,y0,z0,   x0,y0,z0);
+            case POS_Z -> quad(fb, x0,y0,z1p,  x1p,y0,z1p, x1p,y1p,z1p, x0,y1p,z1p);
+            case NEG_Z -> quad(fb, x1p,y0,z0,  x0,y0,z0,   x0,y1p,z0,   x1p,y1p,z0);
         }
     }
 
-    private void quad(float x0,float y0,float z0, float x1,float y1,float z1, float x2,float y2,float z2, float x3,float y3,float z3,
-                      float u0,float v0,float u1,float v1) {
-        put(x0,y0,z0,u0,v0);
-        put(x1,y1,z1,u1,v0);
-        put(x2,y2,z2,u1,v1);
-        put(x3,y3,z3,u0,v1);
-
-        i.put(vertCount).put(vertCount+1).put(vertCount+2);
-        i.put(vertCount).put(vertCount+2).put(vertCount+3);
+    private void quad(int fb, int x0,int y0,int z0, int x1,int y1,int z1, int x2,int y2,int z2, int x3,int y3,int z3) {
+        if (v.remaining() < 4) grow();
+        v.put(pack(fb, x0, y0, z0));
+        v.put(pack(fb, x1, y1, z1));
+        v.put(pack(fb, x2, y2, z2));
+        v.put(pack(fb, x3, y3, z3));
         vertCount += 4;
     }
 
-    private void put(float x, float y, float z, float u, float w) {
-        v.put(x).put(y).put(z).put(u).put(w);
+    private void grow() {
+        int pos = v.position();
+        v = MemoryUtil.memRealloc(v, v.capacity() * 2);
+        v.clear().position(pos);
     }
 
+    private static int pack(int fb, int x, int y, int z) {
+        return fb | x | (y << POS_BITS) | (z << (2 * POS_BITS));
+    }
+
+    public int quadCount() { return vertCount / 4; }
+
+    /** 지금까지 쌓은 정점을 딱 맞는 크기로 복사해서 넘긴다. 빌더는 이후 reset()해서 다시 쓸 수 있다. */
     public Built build() {
-        v.flip();
-        i.flip();
-        return new Built(v, i);
+        int n = vertCount;
+        IntBuffer out = MemoryUtil.memAllocInt(Math.max(1, n));
+        MemoryUtil.memCopy(MemoryUtil.memAddress0(v), MemoryUtil.memAddress(out), (long) n * Integer.BYTES);
+        out.limit(n);
+        return new Built(out, quadCount());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,110 @@
+package me.cubix.gfx.model;
+
+import me.cubix.world.block.BlockId;
+import me.cubix.world.chunk.Chunk;
+
+import static me.cubix.gfx.model.ChunkBuilder.*;
+
+/**
+ * 청크 하나의 보이는 면을 ChunkBuilder에 채운다.
+ * 면은 이웃 칸이 AIR일 때만 보인다.
+ */
+public final class ChunkMesher {
+    private static final int S = Chunk.S;
+
+    public static void build(MeshMode mode, BlockSource src, ChunkBuilder b) {
+        if (mode == MeshMode.GREEDY) greedy(src, b);
+        else naive(src, b);
+    }
+
+    public static void naive(BlockSource src, ChunkBuilder b) {
+        for (int lz = 0; lz < S; lz++)
+            for (int ly = 0; ly < S; ly++)
+                for (int lx = 0; lx < S; lx++) {
+                    short id = src.get(lx, ly, lz);
+                    if (id == BlockId.AIR) continue;
+
+                    int tile = BlockTiles.tileFor(id);
+
+                    // 이웃이 AIR면 그 면은 보인다
+                    if (src.get(lx+1, ly, lz) == BlockId.AIR) b.addFace(tile, POS_X, lx, ly, lz);
+                    if (src.get(lx-1, ly, lz) == BlockId.AIR) b.addFace(tile, NEG_X, lx, ly, lz);
+                    if (src.get(lx, ly+1, lz) == BlockId.AIR) b.addFace(tile, POS_Y, lx, ly, lz);
+                    if (src.get(lx, ly-1, lz) == BlockId.AIR) b.addFace(tile, NEG_Y, lx, ly, lz);
+                    if (src.get(lx, ly, lz+1) == BlockId.AIR) b.addFace(tile, POS_Z, lx, ly, lz);
+                    if (src.get(lx, ly, lz-1) == BlockId.AIR) b.addFace(tile, NEG_Z, lx, ly, lz);
+                }
+    }
+
+    // 면 방향별 (법선 축, a축, b축). a/b는 ChunkBuilder.addQuad 규약과 같다
+    private static final int[] NORMAL_AXIS = { 0, 0, 1, 1, 2, 2 };
+    private static final int[] A_AXIS      = { 2, 2, 0, 0, 0, 0 };
+    private static final int[] B_AXIS      = { 1, 1, 2, 2, 1, 1 };
+
+    /**
+     * 면 방향 x 슬라이스마다 16x16 마스크(타일+1, 0=면 없음)를 만들고,
+     * 같은 값끼리 a축으로 최대한 늘린 뒤 b축으로 늘려 직사각형 하나로 낸다.
+     */
+    public static void greedy(BlockSource src, ChunkBuilder b) {
+        int[] mask = new int[S * S];
+        int[] p = new int[3];
+
+        for (int face = 0; face < 6; face++) {
+            int n = NORMAL_AXIS[face], ua = A_AXIS[face], vb = B_AXIS[face];
+            int step = (face & 1) == 0 ? 1 : -1;
+
+            for (int s = 0; s < S; s++) {
+                p[n] = s;
+                boolean any = false;
+                for (int bb = 0; bb < S; bb++) {
+                    p[vb] = bb;
+                    for (int aa = 0; aa < S; aa++) {
+                        p[ua] = aa;
+                        int m = 0;
+                        short id = src.get(p[0], p[1], p[2]);
+                        if (id != BlockId.AIR) {
+                            p[n] = s + step;
+                            if (src.get(p[0], p[1], p[2]) == BlockId.AIR) {
+                                int tile = BlockTiles.tileFor(id);
+                                if (tile >= 0) m = tile + 1;
+                            }
+                            p[n] = s;
+                        }
+                        mask[bb * S + aa] = m;
+                        any |= m != 0;
+                    }
+                }
+                if (!any) continue;
+
+                for (int bb = 0; bb < S; bb++) {
+                    for (int aa = 0; aa < S; ) {
+                        int m = mask[bb * S + aa];
+                        if (m == 0) { aa++; continue; }
+
+                        int w = 1;
+                        while (aa + w < S && mask[bb * S + aa + w] == m) w++;
+
+                        int h = 1;
+                        grow:
+                        while (bb + h < S) {
+                            for (int k = 0; k < w; k++) {
+                                if (mask[(bb + h) * S + aa + k] != m) break grow;
+                            }
+                            h++;
+                        }
+
+                        for (int hb = 0; hb < h; hb++)
+                            for (int k = 0; k < w; k++) mask[(bb + hb) * S + aa + k] = 0;
+
+                        p[ua] = aa;
+                        p[vb] = bb;
+                        b.addQuad(m - 1, face, p[0], p[1], p[2], w, h);
+                        aa += w;
+                    }
+                }
+            }
+        }
+    }
+
+    private ChunkMesher() {}
+}
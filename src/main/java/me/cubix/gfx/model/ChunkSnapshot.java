@@ -0,0 +1,71 @@
+package me.cubix.gfx.model;
+
+import me.cubix.world.block.BlockId;
+import me.cubix.world.chunk.Chunk;
+
+/**
+ * 메시 워커에 넘기는 불변 복사본. 청크 16^3 + 6면 이웃의 맞닿은 한 겹을 18^3 배열에 담는다.
+ * 모서리/꼭짓점 칸은 면 판정에 안 쓰여서 AIR로 둔다. 만든 뒤로는 아무도 안 쓰므로 어느 스레드에서 읽어도 된다.
+ */
+public final class ChunkSnapshot implements BlockSource {
+    private static final int S = Chunk.S;
+    private static final int P = S + 2;
+
+    private static final ThreadLocal<short[]> BLOCKS =
+            ThreadLocal.withInitial(() -> new short[Chunk.VOLUME]);
+
+    private final short[] blocks;
+
+    private ChunkSnapshot(short[] blocks) {
+        this.blocks = blocks;
+    }
+
+    /**
+     * 메인 스레드에서 호출. neighbors 순서는 +X, -X, +Y, -Y, +Z, -Z 이고 null이면 AIR로 본다.
+     */
+    public static ChunkSnapshot capture(Chunk center, Chunk[] neighbors) {
+        short[] b = new short[P * P * P]; // AIR == 0
+
+        if (center.isUniform()) {
+            short id = center.uniformId();
+            if (id != BlockId.AIR) {
+                for (int y = 0; y < S; y++)
+                    for (int z = 0; z < S; z++) {
+                        int o = idx(0, y, z);
+                        java.util.Arrays.fill(b, o, o + S, id);
+                    }
+            }
+        } else {
+            short[] raw = BLOCKS.get();
+            center.copyTo(raw);
+            for (int y = 0; y < S; y++)
+                for (int z = 0; z < S; z++)
+                    System.arraycopy(raw, Chunk.index(0, y, z), b, idx(0, y, z), S);
+        }
+
+        for (int i = 0; i < S; i++)
+            for (int j = 0; j < S; j++) {
+                // (i, j) = 면 위의 두 접선 좌표
+                b[idx(S, j, i)]  = at(neighbors[0], 0, j, i);
+                b[idx(-1, j, i)] = at(neighbors[1], S - 1, j, i);
+                b[idx(i, S, j)]  = at(neighbors[2], i, 0, j);
+                b[idx(i, -1, j)] = at(neighbors[3], i, S - 1, j);
+                b[idx(i, j, S)]  = at(neighbors[4], i, j, 0);
+                b[idx(i, j, -1)] = at(neighbors[5], i, j, S - 1);
+            }
+        return new ChunkSnapshot(b);
+    }
+
+    private static short at(Chunk c, int x, int y, int z) {
+        return c == null ? BlockId.AIR : c.get(x, y, z);
+    }
+
+    private static int idx(int lx, int ly, int lz) {
+        return ((ly + 1) * P + (lz + 1)) * P + (lx + 1);
+    }
+
+    @Override
+    public short get(int lx, int ly, int lz) {
+        return blocks[idx(lx, ly, lz)];
+    }
+}
@@ -0,0 +1,87 @@
+package me.cubix.gfx.model;
+
+import me.cubix.world.block.BlockId;
+import me.cubix.world.chunk.Chunk;
+
+/**
+ * 청크의 6면 중 어떤 두 면이 속이 비치는 칸(AIR)으로 이어져 있는지.
+ * 면 쌍 15개를 비트 하나씩으로 담는다. 면 번호는 ChunkBuilder와 같다 (+X, -X, +Y, -Y, +Z, -Z).
+ */
+public final class ChunkVisibility {
+    private static final int S = Chunk.S;
+
+    /** 모든 면이 서로 통함 (빈 청크, 아직 모르는 청크). */
+    public static final int ALL = (1 << 15) - 1;
+    /** 아무 면도 안 통함 (꽉 찬 청크). */
+    public static final int NONE = 0;
+
+    // PAIR[a][b] = 면 쌍 (a,b)의 비트 번호. a == b는 -1
+    private static final int[][] PAIR = new int[6][6];
+    static {
+        int n = 0;
+        for (int a = 0; a < 6; a++) {
+            PAIR[a][a] = -1;
+            for (int b = a + 1; b < 6; b++) {
+                PAIR[a][b] = n;
+                PAIR[b][a] = n;
+                n++;
+            }
+        }
+    }
+
+    public static boolean connected(int mask, int faceA, int faceB) {
+        int p = PAIR[faceA][faceB];
+        return p >= 0 && (mask & (1 << p)) != 0;
+    }
+
+    /** 4096칸 flood fill. 이어진 빈 칸 덩어리마다 닿은 면들을 서로 연결한다. */
+    public static int compute(BlockSource src) {
+        boolean[] seen = new boolean[Chunk.VOLUME];
+        int[] queue = new int[Chunk.VOLUME];
+        int mask = 0;
+
+        for (int start = 0; start < Chunk.VOLUME; start++) {
+            if (seen[start]) continue;
+            if (src.get(start & 15, start >> 8, (start >> 4) & 15) != BlockId.AIR) {
+                seen[start] = true;
+                continue;
+            }
+
+            // 덩어리 하나 채우면서 닿은 면 모으기
+            int faces = 0;
+            int head = 0, tail = 0;
+            queue[tail++] = start;
+            seen[start] = true;
+            while (head < tail) {
+                int i = queue[head++];
+                int x = i & 15, y = i >> 8, z = (i >> 4) & 15;
+
+                if (x == S - 1) faces |= 1 << ChunkBuilder.POS_X; else tail = visit(src, seen, queue, tail, i + 1, x + 1, y, z);
+                if (x == 0)     faces |= 1 << ChunkBuilder.NEG_X; else tail = visit(src, seen, queue, tail, i - 1, x - 1, y, z);
+                if (y == S - 1) faces |= 1 << ChunkBuilder.POS_Y; else tail = visit(src, seen, queue, tail, i + S * S, x, y + 1, z);
+                if (y == 0)     faces |= 1 << ChunkBuilder.NEG_Y; else tail = visit(src, seen, queue, tail, i - S * S, x, y - 1, z);
+                if (z == S - 1) faces |= 1 << ChunkBuilder.POS_Z; else tail = visit(src, seen, queue, tail, i + S, x, y, z + 1);
+                if (z == 0)     faces |= 1 << ChunkBuilder.NEG_Z; else tail = visit(src, seen, queue, tail, i - S, x, y, z - 1);
+            }
+
+            for (int a = 0; a < 6; a++) {
+                if ((faces & (1 << a)) == 0) continue;
+                for (int b = a + 1; b < 6; b++) {
+                    if ((faces & (1 << b)) != 0) mask |= 1 << PAIR[a][b];
+                }
+            }
+            if (mask == ALL) return ALL;
+        }
+        return mask;
+    }
+
+    private static int visit(BlockSource src, boolean[] seen, int[] queue, int tail, int i, int x, int y, int z) {
+        if (seen[i]) return tail;
+        seen[i] = true;
+        if (src.get(x, y, z) != BlockId.AIR) return tail;
+        queue[tail] = i;
+        return tail + 1;
+    }
+
+    private ChunkVisibility() {}
+}
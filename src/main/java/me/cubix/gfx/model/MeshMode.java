@@ -0,0 +1,8 @@
+package me.cubix.gfx.model;
+
+public enum MeshMode {
+    /** 보이는 블록 면마다 사각형 하나. */
+    NAIVE,
+    /** 같은 평면, 같은 타일의 면을 최대 직사각형으로 합친다. */
+    GREEDY
+}
@@ -1,5 +1,6 @@
 package me.cubix.phys;
 
+import me.cubix.world.BlockCursor;
 import me.cubix.world.World;
 
 public final class CollisionResolver {
@@ -17,19 +18,22 @@ public final class CollisionResolver {
         p.onGround = false;
 
         // X
-        if (dx != 0) dx = collideAxis(world, p, dx, 0, 0);
+        // 로드 안 된 청크는 고체 취급
+        BlockCursor blocks = world.cursor(me.cubix.world.block.BlockId.STONE);
+
+        if (dx != 0) dx = collideAxis(blocks, p, dx, 0, 0);
         p.pos.x += dx;
 
         // Y
-        if (dy != 0) dy = collideAxis(world, p, 0, dy, 0);
+        if (dy != 0) dy = collideAxis(blocks, p, 0, dy, 0);
         p.pos.y += dy;
 
         // Z
-        if (dz != 0) dz = collideAxis(world, p, 0, 0, dz);
+        if (dz != 0) dz = collideAxis(blocks, p, 0, 0, dz);
         p.pos.z += dz;
     }
 
-    private static float collideAxis(World world, PlayerPhysicsState p, float dx, float dy, float dz) {
+    private static float collideAxis(BlockCursor blocks, PlayerPhysicsState p, float dx, float dy, float dz) {
         AABB box = AABBUtil.playerAabb(p);
         AABB moved = box.moved(dx, dy, dz);
 
@@ -46,7 +50,7 @@ public final class CollisionResolver {
         for (int y = minY; y <= maxY; y++) {
             for (int z = minZ; z <= maxZ; z++) {
                 for (int x = minX; x <= maxX; x++) {
-                    short id = world.getBlock(x, y, z);
+                    short id = blocks.get(x, y, z);
                     if (!isSolid(id)) continue;
 
                     // 블록 AABB: [x,x+1], [y,y+1], [z,z+1]
@@ -30,17 +30,14 @@ public final class NuklearGL3 {
     private int fontTex;
 
     // GL objects
-    private int vao, vbo, ebo;
+    private int vao;
+    private StreamBuffer vbo, ebo;
     private int prog;
     private int vertSh, fragSh;
 
     private int uniformTex;
     private int uniformProj;
 
-    // buffers
-    private ByteBuffer vertices;
-    private ByteBuffer elements;
-
     // config
     private NkConvertConfig convertConfig;
 
@@ -211,20 +208,20 @@ public final class NuklearGL3 {
 
         // buffers
         vao = glGenVertexArrays();
-        vbo = glGenBuffers();
-        ebo = glGenBuffers();
-
         glBindVertexArray(vao);
-        glBindBuffer(GL_ARRAY_BUFFER, vbo);
-        glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, ebo);
 
-        int vsz = 4 * 1024 * 1024;    // 4MB vertex
-        int esz = 2 * 1024 * 1024;    // 2MB element
-        glBufferData(GL_ARRAY_BUFFER, vsz, GL_STREAM_DRAW);
-        glBufferData(GL_ELEMENT_ARRAY_BUFFER, esz, GL_STREAM_DRAW);
+        // 정점 구간은 stride 배수로 (링 구간 시작을 basevertex로 넘기므로)
+        int vsz = 4 * 1024 * 1024 / VERTEX_STRIDE * VERTEX_STRIDE;   // ~4MB vertex
+        int esz = 2 * 1024 * 1024;                                   // 2MB element
+        vbo = new StreamBuffer(GL_ARRAY_BUFFER, vsz);
+        ebo = new StreamBuffer(GL_ELEMENT_ARRAY_BUFFER, esz);
+        System.out.println("[UI] stream mode=" + vbo.mode() + "/" + ebo.mode());
+
+        vbo.bind();
+        ebo.bind();
 
         // Vertex layout = NkDrawVertex {float2 pos, float2 uv, ubyte4 col}
-        int stride = 2 * 4 + 2 * 4 + 4; // 20 bytes
+        int stride = VERTEX_STRIDE;
         glEnableVertexAttribArray(0);
         glEnableVertexAttribArray(1);
         glEnableVertexAttribArray(2);
@@ -235,11 +232,10 @@ public final class NuklearGL3 {
         glBindVertexArray(0);
         glBindBuffer(GL_ARRAY_BUFFER, 0);
         glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, 0);
-
-        vertices = MemoryUtil.memAlloc(vsz);
-        elements = MemoryUtil.memAlloc(esz);
     }
 
+    private static final int VERTEX_STRIDE = 2 * 4 + 2 * 4 + 4; // 20 bytes
+
     private void setupCallbacks() {
         charCallback = new GLFWCharCallback() {
             @Override public void invoke(long window, int codepoint) {
@@ -331,19 +327,10 @@ public final class NuklearGL3 {
     }
 
     private void render() {
-        // Convert Nuklear draw commands to buffers
-        NkBuffer vbuf = NkBuffer.create();
-        NkBuffer ebuf = NkBuffer.create();
-        nk_buffer_init_fixed(vbuf, vertices);
-        nk_buffer_init_fixed(ebuf, elements);
-
-        nk_convert(ctx, cmds, vbuf, ebuf, convertConfig);
-
         // setup state
         int lastProgram = glGetInteger(GL_CURRENT_PROGRAM);
         int lastTexture = glGetInteger(GL_TEXTURE_BINDING_2D);
         int lastArrayBuffer = glGetInteger(GL_ARRAY_BUFFER_BINDING);
-        int lastElementBuffer = glGetInteger(GL_ELEMENT_ARRAY_BUFFER_BINDING);
         int lastVertexArray = glGetInteger(GL_VERTEX_ARRAY_BINDING);
         int lastBlendSrc = glGetInteger(GL_BLEND_SRC);
         int lastBlendDst = glGetInteger(GL_BLEND_DST);
@@ -353,6 +340,21 @@ public final class NuklearGL3 {
         boolean lastDepth = glIsEnabled(GL_DEPTH_TEST);
         boolean lastScissor = glIsEnabled(GL_SCISSOR_TEST);
 
+        // EBO 바인딩은 VAO 상태라 우리 VAO를 먼저 묶고 매핑한다
+        glBindVertexArray(vao);
+
+        // nk_convert가 매핑된 GL 메모리에 바로 쓴다 (중간 복사, glBufferSubData 없음)
+        NkBuffer vbuf = NkBuffer.create();
+        NkBuffer ebuf = NkBuffer.create();
+        nk_buffer_init_fixed(vbuf, vbo.begin());
+        nk_buffer_init_fixed(ebuf, ebo.begin());
+
+        nk_convert(ctx, cmds, vbuf, ebuf, convertConfig);
+
+        long vOffset = vbo.end((int) nk_buffer_total(vbuf));
+        long eOffset = ebo.end((int) nk_buffer_total(ebuf));
+        int baseVertex = (int) (vOffset / VERTEX_STRIDE);
+
         glEnable(GL_BLEND);
         glBlendEquation(GL_FUNC_ADD);
         glBlendFunc(GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA);
@@ -373,18 +375,10 @@ public final class NuklearGL3 {
         glViewport(0, 0, fbWidth, fbHeight);
 
         glBindVertexArray(vao);
-        glBindBuffer(GL_ARRAY_BUFFER, vbo);
-        glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, ebo);
-
-        // upload buffers
-        int vsize = (int) nk_buffer_total(vbuf);
-        int esize = (int) nk_buffer_total(ebuf);
-
-        glBufferSubData(GL_ARRAY_BUFFER, 0, vertices.position(0).limit(vsize));
-        glBufferSubData(GL_ELEMENT_ARRAY_BUFFER, 0, elements.position(0).limit(esize));
+        ebo.bind();
 
         // Draw
-        long offset = 0;
+        long offset = eOffset;
 
         for (NkDrawCommand cmd = nk__draw_begin(ctx, cmds);
              cmd != null;
@@ -403,12 +397,16 @@ public final class NuklearGL3 {
             if (scH < 0) scH = 0;
 
             glScissor(scX, scY, scW, scH);
-            glDrawElements(GL_TRIANGLES, cmd.elem_count(), GL_UNSIGNED_SHORT, offset);
+            glDrawElementsBaseVertex(GL_TRIANGLES, cmd.elem_count(), GL_UNSIGNED_SHORT, offset, baseVertex);
 
             offset += (long) cmd.elem_count() * 2L;
         }
         nk__draw_end(ctx, cmds);
 
+        // 링 모드면 이번 구간에 펜스 (GPU가 다 쓰기 전엔 다시 안 씀)
+        vbo.fence();
+        ebo.fence();
+
         // restore state
         if (!lastBlend) glDisable(GL_BLEND);
         glBlendFunc(lastBlendSrc, lastBlendDst);
@@ -420,7 +418,7 @@ public final class NuklearGL3 {
         glUseProgram(lastProgram);
         glBindTexture(GL_TEXTURE_2D, lastTexture);
         glBindBuffer(GL_ARRAY_BUFFER, lastArrayBuffer);
-        glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, lastElementBuffer);
+        // EBO는 VAO에 딸려 있어서 VAO만 돌려놓으면 된다
         glBindVertexArray(lastVertexArray);
 
         nk_buffer_clear(cmds);
@@ -438,17 +436,14 @@ public final class NuklearGL3 {
 
         if (fontTex != 0) glDeleteTextures(fontTex);
 
-        glDeleteBuffers(vbo);
-        glDeleteBuffers(ebo);
+        vbo.cleanup();
+        ebo.cleanup();
         glDeleteVertexArrays(vao);
 
         glDeleteProgram(prog);
         glDeleteShader(vertSh);
         glDeleteShader(fragSh);
 
-        MemoryUtil.memFree(vertices);
-        MemoryUtil.memFree(elements);
-
         convertConfig.free();
         atlas.free();
         nullTex.free();
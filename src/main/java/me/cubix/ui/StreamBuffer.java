@@ -0,0 +1,163 @@
+package me.cubix.ui;
+
+import org.lwjgl.opengl.ARBBufferStorage;
+import org.lwjgl.opengl.GL;
+import org.lwjgl.opengl.GLCapabilities;
+import org.lwjgl.system.MemoryUtil;
+
+import java.nio.ByteBuffer;
+
+import static org.lwjgl.opengl.GL33.*;
+
+/**
+ * 프레임마다 통째로 새로 쓰는 GL 버퍼 (UI 정점/인덱스용).
+ *
+ * PERSISTENT: ARB_buffer_storage가 있으면 구간 3개짜리 링을 한 번만 매핑해두고 펜스로 GPU가 다 쓴 구간만 재사용.
+ * ORPHAN: GL 3.3 기본. 매 프레임 glBufferData(null)로 고아 만들고 glMapBufferRange로 바로 쓴다.
+ * SUB_DATA: 매핑이 실패하는 드라이버용. CPU 버퍼에 쓰고 glBufferSubData (예전 방식).
+ *
+ * 어느 모드든 {@link #begin()}이 준 메모리에 직접 쓰고 {@link #end}가 데이터의 버퍼 안 바이트 오프셋을 돌려준다.
+ * GL_ELEMENT_ARRAY_BUFFER면 자기 VAO를 bind한 상태에서 불러야 한다 (다른 VAO의 EBO를 건드리지 않게).
+ */
+final class StreamBuffer {
+    enum Mode { PERSISTENT, ORPHAN, SUB_DATA }
+
+    private static final int FRAMES = 3;
+    private static final long WAIT_NS = 1_000_000L;
+
+    private final int target;
+    private final int segment;
+    private int id;
+    private Mode mode;
+
+    private ByteBuffer mapped;             // PERSISTENT: 링 전체
+    private final long[] fences = new long[FRAMES];
+    private int frame;
+
+    private ByteBuffer staging;            // SUB_DATA
+
+    StreamBuffer(int target, int segmentBytes) {
+        this.target = target;
+        this.segment = segmentBytes;
+        this.mode = preferredMode();
+        create();
+    }
+
+    /** ARB_buffer_storage(또는 4.4)가 있으면 PERSISTENT. -Dcubix.uistream=orphan|subdata 로 강제 가능. */
+    static Mode preferredMode() {
+        String forced = System.getProperty("cubix.uistream");
+        if ("orphan".equalsIgnoreCase(forced)) return Mode.ORPHAN;
+        if ("subdata".equalsIgnoreCase(forced)) return Mode.SUB_DATA;
+        GLCapabilities caps = GL.getCapabilities();
+        return caps.OpenGL44 || caps.GL_ARB_buffer_storage ? Mode.PERSISTENT : Mode.ORPHAN;
+    }
+
+    private void create() {
+        id = glGenBuffers();
+        glBindBuffer(target, id);
+
+        if (mode == Mode.PERSISTENT) {
+            int flags = GL_MAP_WRITE_BIT | ARBBufferStorage.GL_MAP_PERSISTENT_BIT | ARBBufferStorage.GL_MAP_COHERENT_BIT;
+            long size = (long) segment * FRAMES;
+            ARBBufferStorage.glBufferStorage(target, size, flags);
+            mapped = glMapBufferRange(target, 0, size, flags);
+            if (mapped != null) return;
+
+            // 스토리지는 다시 못 정하니 버퍼를 새로 만든다
+            glDeleteBuffers(id);
+            mode = Mode.ORPHAN;
+            id = glGenBuffers();
+            glBindBuffer(target, id);
+        }
+        glBufferData(target, segment, GL_STREAM_DRAW);
+    }
+
+    Mode mode() { return mode; }
+
+    int id() { return id; }
+
+    int capacity() { return segment; }
+
+    /** 버퍼를 target에 다시 묶는다 (VAO에 EBO 붙일 때 등). */
+    void bind() {
+        glBindBuffer(target, id);
+    }
+
+    /** 이번 프레임에 쓸 메모리. 크기는 segment 바이트, position 0. */
+    ByteBuffer begin() {
+        glBindBuffer(target, id);
+        switch (mode) {
+            case PERSISTENT -> {
+                waitFence(frame);
+                return mapped.slice(frame * segment, segment);
+            }
+            case ORPHAN -> {
+                // 고아 만들기: 드라이버가 새 저장소를 주므로 GPU가 쓰던 걸 기다리지 않는다
+                glBufferData(target, segment, GL_STREAM_DRAW);
+                ByteBuffer m = glMapBufferRange(target, 0, segment,
+                        GL_MAP_WRITE_BIT | GL_MAP_INVALIDATE_BUFFER_BIT | GL_MAP_UNSYNCHRONIZED_BIT);
+                if (m != null) return m;
+                System.err.println("[UI] glMapBufferRange failed, falling back to glBufferSubData");
+                mode = Mode.SUB_DATA;
+            }
+            default -> { }
+        }
+        if (staging == null) staging = MemoryUtil.memAlloc(segment);
+        return staging.clear();
+    }
+
+    /** used 바이트를 썼다. 데이터가 버퍼 안 어디서 시작하는지 돌려준다. */
+    long end(int used) {
+        switch (mode) {
+            case PERSISTENT -> {
+                return (long) frame * segment; // COHERENT라 flush 필요 없음
+            }
+            case ORPHAN -> {
+                glBindBuffer(target, id);
+                glUnmapBuffer(target);
+                return 0;
+            }
+            default -> {
+                glBindBuffer(target, id);
+                glBufferSubData(target, 0, staging.position(0).limit(used));
+                return 0;
+            }
+        }
+    }
+
+    /** 이번 프레임 draw를 다 건 뒤. PERSISTENT면 이 구간에 펜스를 걸고 다음 구간으로. */
+    void fence() {
+        if (mode != Mode.PERSISTENT) return;
+        if (fences[frame] != 0) glDeleteSync(fences[frame]);
+        fences[frame] = glFenceSync(GL_SYNC_GPU_COMMANDS_COMPLETE, 0);
+        frame = (frame + 1) % FRAMES;
+    }
+
+    private void waitFence(int f) {
+        long sync = fences[f];
+        if (sync == 0) return;
+        int flags = GL_SYNC_FLUSH_COMMANDS_BIT;
+        while (true) {
+            int r = glClientWaitSync(sync, flags, WAIT_NS);
+            if (r == GL_ALREADY_SIGNALED || r == GL_CONDITION_SATISFIED || r == GL_WAIT_FAILED) break;
+            flags = 0;
+        }
+        glDeleteSync(sync);
+        fences[f] = 0;
+    }
+
+    void cleanup() {
+        for (int f = 0; f < FRAMES; f++) {
+            if (fences[f] != 0) glDeleteSync(fences[f]);
+            fences[f] = 0;
+        }
+        if (mapped != null) {
+            glBindBuffer(target, id);
+            glUnmapBuffer(target);
+            mapped = null;
+        }
+        glDeleteBuffers(id);
+        if (staging != null) MemoryUtil.memFree(staging);
+        staging = null;
+    }
+}
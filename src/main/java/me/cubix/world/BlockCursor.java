@@ -0,0 +1,83 @@
+package me.cubix.world;
+
+import me.cubix.world.chunk.Chunk;
+
+/**
+ * 핫 루프(메셔, 충돌)용 블록 읽기 커서.
+ * 마지막으로 찾은 청크와 그 주변 3x3x3 청크를 기억해서 대부분의 읽기를 배열 인덱스로 끝낸다.
+ *
+ * 절대 로드/생성하지 않는다: 안 올라온 청크는 fallback 값을 돌려준다.
+ * 찾은 청크(없음 포함)를 캐시하므로 프레임/작업 단위로 짧게 쓰고 버리거나 reset()할 것.
+ */
+public final class BlockCursor {
+    private final World world;
+    private final short fallback;
+
+    // 3x3x3 이웃 캐시. index = ((dy+1)*3 + (dz+1))*3 + (dx+1)
+    private final Chunk[] near = new Chunk[27];
+    private int resolvedMask; // 비트 i = near[i]를 조회했음 (null이어도)
+    private int centerX, centerY, centerZ;
+    private boolean centered;
+
+    private Chunk last;
+    private int lastX, lastY, lastZ;
+    private boolean hasLast;
+
+    BlockCursor(World world, short fallback) {
+        this.world = world;
+        this.fallback = fallback;
+    }
+
+    /** 주변 캐시의 중심 청크를 정한다. 안 불러도 첫 읽기 위치로 자동으로 잡힌다. */
+    public BlockCursor center(int cx, int cy, int cz) {
+        centerX = cx;
+        centerY = cy;
+        centerZ = cz;
+        centered = true;
+        resolvedMask = 0;
+        java.util.Arrays.fill(near, null);
+        return this;
+    }
+
+    public void reset() {
+        centered = false;
+        hasLast = false;
+        last = null;
+        resolvedMask = 0;
+        java.util.Arrays.fill(near, null);
+    }
+
+    public short get(int x, int y, int z) {
+        Chunk c = chunk(x >> Chunk.SHIFT, y >> Chunk.SHIFT, z >> Chunk.SHIFT);
+        if (c == null) return fallback;
+        return c.get(Chunk.index(x & Chunk.MASK, y & Chunk.MASK, z & Chunk.MASK));
+    }
+
+    /** 청크 좌표로 로드된 청크를 찾는다. 없으면 null. */
+    public Chunk chunk(int cx, int cy, int cz) {
+        if (hasLast && cx == lastX && cy == lastY && cz == lastZ) return last;
+
+        int dx = cx - centerX, dy = cy - centerY, dz = cz - centerZ;
+        if (!centered || dx < -1 || dx > 1 || dy < -1 || dy > 1 || dz < -1 || dz > 1) {
+            center(cx, cy, cz);
+            dx = dy = dz = 0;
+        }
+
+        int i = ((dy + 1) * 3 + (dz + 1)) * 3 + (dx + 1);
+        Chunk c;
+        if ((resolvedMask & (1 << i)) != 0) {
+            c = near[i];
+        } else {
+            c = world.getChunkIfLoaded(cx, cy, cz);
+            near[i] = c;
+            resolvedMask |= 1 << i;
+        }
+
+        last = c;
+        lastX = cx;
+        lastY = cy;
+        lastZ = cz;
+        hasLast = true;
+        return c;
+    }
+}
@@ -0,0 +1,190 @@
+package me.cubix.world;
+
+import me.cubix.world.chunk.Chunk;
+import me.cubix.world.chunk.ChunkPos;
+import me.cubix.world.save.AutosaveService;
+import me.cubix.world.save.WorldStorage;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 디스크 로드 / 지형 생성을 워커 스레드에서 돌린다.
+ * 카메라(focus)에 가까운 청크부터 처리하고, 끝난 청크는 ready 큐에 쌓아뒀다가
+ * 메인 스레드가 {@link #drainReady}로 가져가 World 맵에 넣는다.
+ *
+ * 반환되는 future는 워커 스레드에서 완료되므로 콜백에서 World를 만지면 안 된다.
+ */
+public final class ChunkProvider implements AutoCloseable {
+    public record Ready(ChunkPos pos, Chunk chunk) {}
+
+    private final WorldInfo info;
+    private final WorldGen gen;
+    private final AutosaveService autosave;
+    private final ThreadPoolExecutor pool;
+    private final Map<ChunkPos, CompletableFuture<Chunk>> pending = new ConcurrentHashMap<>();
+    private final Queue<Ready> ready = new ConcurrentLinkedQueue<>();
+
+    private volatile int focusX, focusY, focusZ;
+
+    public ChunkProvider(WorldInfo info, WorldGen gen, AutosaveService autosave) {
+        this.info = info;
+        this.gen = gen;
+        this.autosave = autosave;
+
+        int workers = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger n = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(workers, workers, 30, TimeUnit.SECONDS,
+                new PriorityBlockingQueue<>(),
+                r -> {
+                    Thread t = new Thread(r, "chunk-loader-" + n.incrementAndGet());
+                    t.setDaemon(true);
+                    t.setPriority(Thread.NORM_PRIORITY - 1);
+                    return t;
+                });
+    }
+
+    /** 이미 요청 중이면 같은 future를 돌려준다. */
+    public CompletableFuture<Chunk> request(int cx, int cy, int cz) {
+        ChunkPos p = new ChunkPos(cx, cy, cz);
+        CompletableFuture<Chunk> f = pending.get(p);
+        if (f != null) return f;
+
+        CompletableFuture<Chunk> created = new CompletableFuture<>();
+        f = pending.putIfAbsent(p, created);
+        if (f != null) return f;
+
+        pool.execute(new LoadTask(p, created, distSq(cx, cy, cz)));
+        return created;
+    }
+
+    public boolean isPending(int cx, int cy, int cz) {
+        return pending.containsKey(new ChunkPos(cx, cy, cz));
+    }
+
+    public int pendingCount() { return pending.size(); }
+
+    /** 동기 버전. 스폰처럼 꼭 기다려야 하는 곳에서만 쓴다. */
+    public Chunk loadOrGenerate(int cx, int cy, int cz) {
+        try {
+            Chunk loaded = load(cx, cy, cz);
+            if (loaded != null) return loaded;
+        } catch (IOException ex) {
+            ex.printStackTrace();
+        }
+
+        Chunk c = new Chunk();
+        gen.generateChunk(cx, cy, cz, c);
+        return c;
+    }
+
+    /**
+     * 반경 r 안의 청크를 ForkJoin으로 한꺼번에 준비한다 (스폰 직후용). 끝날 때까지 블록.
+     * 디스크에 있는 건 읽고, 없는 건 기둥 단위로 높이맵을 공유해서 생성한다.
+     */
+    public void preload(int cx, int cy, int cz, int r) {
+        new ParallelGenerator(gen).generate(cx - r, cx + r, cy - r, cy + r, cz - r, cz + r,
+                (x, y, z) -> {
+                    try {
+                        Chunk loaded = load(x, y, z);
+                        if (loaded == null) return true;
+                        ready.add(new Ready(new ChunkPos(x, y, z), loaded));
+                    } catch (IOException ex) {
+                        ex.printStackTrace();
+                        return true;
+                    }
+                    return false;
+                },
+                (x, y, z, c) -> ready.add(new Ready(new ChunkPos(x, y, z), c)));
+    }
+
+    // 내렸는데 아직 저장 중인 청크가 디스크 내용보다 새것
+    private Chunk load(int cx, int cy, int cz) throws IOException {
+        Chunk c = autosave.takeEvicted(cx, cy, cz);
+        if (c != null) return c;
+        return WorldStorage.loadChunkIfExists(info, cx, cy, cz);
+    }
+
+    /** 메인 스레드 전용: 완료된 청크를 넘겨준다. */
+    public void drainReady(java.util.function.Consumer<Ready> sink) {
+        Ready r;
+        while ((r = ready.poll()) != null) {
+            pending.remove(r.pos());
+            sink.accept(r);
+        }
+    }
+
+    /** 카메라 청크가 바뀌면 대기 중인 작업 순서를 다시 매긴다. */
+    public void setFocus(int cx, int cy, int cz) {
+        if (cx == focusX && cy == focusY && cz == focusZ) return;
+        focusX = cx;
+        focusY = cy;
+        focusZ = cz;
+
+        List<Runnable> queued = new ArrayList<>();
+        pool.getQueue().drainTo(queued);
+        for (Runnable r : queued) {
+            LoadTask t = (LoadTask) r;
+            pool.execute(new LoadTask(t.pos, t.future, distSq(t.pos.x(), t.pos.y(), t.pos.z())));
+        }
+    }
+
+    private int distSq(int cx, int cy, int cz) {
+        int dx = cx - focusX, dy = cy - focusY, dz = cz - focusZ;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    /**
+     * 대기 중인 작업은 취소하고 돌고 있는 것은 끝까지 기다린다.
+     * shutdownNow()로 인터럽트하면 안 된다: 읽던 FileChannel이 ClosedByInterruptException으로 닫히는데
+     * 그 채널은 RegionCache가 공유하는 region 파일이라 이후 저장이 전부 실패한다.
+     */
+    @Override
+    public void close() {
+        List<Runnable> queued = new ArrayList<>();
+        pool.getQueue().drainTo(queued);
+        for (Runnable r : queued) ((LoadTask) r).future.cancel(false);
+        pool.shutdown();
+        try {
+            pool.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        pending.clear();
+        ready.clear();
+    }
+
+    private final class LoadTask implements Runnable, Comparable<LoadTask> {
+        final ChunkPos pos;
+        final CompletableFuture<Chunk> future;
+        final int priority;
+
+        LoadTask(ChunkPos pos, CompletableFuture<Chunk> future, int priority) {
+            this.pos = pos;
+            this.future = future;
+            this.priority = priority;
+        }
+
+        @Override
+        public void run() {
+            try {
+                Chunk c = loadOrGenerate(pos.x(), pos.y(), pos.z());
+                ready.add(new Ready(pos, c));
+                future.complete(c);
+            } catch (Throwable t) {
+                pending.remove(pos);
+                future.completeExceptionally(t);
+            }
+        }
+
+        @Override
+        public int compareTo(LoadTask o) {
+            return Integer.compare(priority, o.priority);
+        }
+    }
+}
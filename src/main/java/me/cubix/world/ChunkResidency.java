@@ -0,0 +1,94 @@
+package me.cubix.world;
+
+import me.cubix.world.chunk.Chunk;
+import me.cubix.world.chunk.ChunkMap;
+import me.cubix.world.chunk.ChunkPos;
+import me.cubix.world.save.AutosaveService;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 메모리에 올라와 있는 청크 수/용량을 예산 안으로 유지한다.
+ * 예산을 넘으면 focus(카메라 청크)에서 keepRadius 밖에 있는 청크를 먼 것부터 내린다.
+ * 더티 청크는 AutosaveService에 저장을 맡기고(안 기다림), 리스너(렌더러 메시 정리 등)에 알린다.
+ *
+ * 메인 스레드 전용.
+ */
+public final class ChunkResidency {
+    @FunctionalInterface
+    public interface UnloadListener {
+        void onUnload(int cx, int cy, int cz, Chunk chunk);
+    }
+
+    private int maxChunks = 4096;
+    private long maxBytes = 64L * 1024 * 1024;
+    private int keepRadius = 6;       // 렌더 반경 4 + 메시용 이웃 1 + 여유 1
+    private int checkInterval = 30;   // 프레임 단위
+
+    private final List<UnloadListener> listeners = new ArrayList<>();
+
+    private int ticks;
+    private long evicted;
+    private int pendingSave;
+    private long residentBytes;
+
+    public void setBudget(int maxChunks, long maxBytes) {
+        this.maxChunks = maxChunks;
+        this.maxBytes = maxBytes;
+    }
+
+    public void setKeepRadius(int r) { this.keepRadius = r; }
+    public void setCheckInterval(int frames) { this.checkInterval = Math.max(1, frames); }
+
+    public void addListener(UnloadListener l) { listeners.add(l); }
+    public void removeListener(UnloadListener l) { listeners.remove(l); }
+
+    public long evicted() { return evicted; }
+    /** 마지막 검사 시점 기준, 저장 안 된 상주 청크 수. */
+    public int pendingSave() { return pendingSave; }
+    /** 마지막 검사 시점 기준 추정치. */
+    public long residentBytes() { return residentBytes; }
+
+    private record Candidate(long key, int dist, Chunk chunk) {}
+
+    void tick(AutosaveService autosave, ChunkMap chunks, int fx, int fy, int fz) {
+        boolean overCount = chunks.size() > maxChunks;
+        if (!overCount && ++ticks < checkInterval) return;
+        ticks = 0;
+
+        List<Candidate> far = new ArrayList<>();
+        long[] bytes = {0};
+        int[] dirty = {0};
+        chunks.forEach((cx, cy, cz, c) -> {
+            bytes[0] += c.estimatedBytes();
+            if (c.isDirty()) dirty[0]++;
+            int d = Math.max(Math.abs(cx - fx), Math.max(Math.abs(cy - fy), Math.abs(cz - fz)));
+            if (d > keepRadius) far.add(new Candidate(ChunkPos.pack(cx, cy, cz), d, c));
+        });
+        residentBytes = bytes[0];
+        pendingSave = dirty[0];
+
+        if (chunks.size() <= maxChunks && residentBytes <= maxBytes) return;
+
+        far.sort((a, b) -> Integer.compare(b.dist, a.dist));
+        for (Candidate cand : far) {
+            if (chunks.size() <= maxChunks && residentBytes <= maxBytes) break;
+            unload(autosave, chunks, cand);
+            residentBytes -= cand.chunk.estimatedBytes();
+        }
+    }
+
+    private void unload(AutosaveService autosave, ChunkMap chunks, Candidate cand) {
+        int cx = ChunkPos.unpackX(cand.key), cy = ChunkPos.unpackY(cand.key), cz = ChunkPos.unpackZ(cand.key);
+        Chunk c = cand.chunk;
+        if (c.isDirty()) {
+            // 쓰기는 백그라운드에서. 끝나기 전에 다시 로드되면 디스크 대신 이 청크를 되찾는다
+            autosave.saveEvicted(cx, cy, cz, c);
+            pendingSave--;
+        }
+        chunks.remove(cand.key);
+        evicted++;
+        for (UnloadListener l : listeners) l.onUnload(cx, cy, cz, c);
+    }
+}
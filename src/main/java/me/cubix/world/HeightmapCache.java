@@ -0,0 +1,77 @@
+package me.cubix.world;
+
+import me.cubix.world.chunk.Chunk;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * (cx,cz) 기둥별 16x16 높이맵 캐시. 세로로 쌓인 청크들이 같은 높이맵을 공유한다.
+ * 용량을 넘으면 가장 오래 안 쓴 기둥부터 버린다(LRU).
+ *
+ * 돌려주는 배열은 공유되므로 읽기만 할 것. index = lz * S + lx
+ */
+public final class HeightmapCache {
+    public interface Source {
+        void fill(int cx, int cz, int[] out);
+    }
+
+    private final Source source;
+    private final int capacity;
+    private final LinkedHashMap<Long, int[]> map;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public HeightmapCache(Source source, int capacity) {
+        this.source = source;
+        this.capacity = capacity;
+        this.map = new LinkedHashMap<>(capacity * 4 / 3 + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, int[]> eldest) {
+                return size() > HeightmapCache.this.capacity;
+            }
+        };
+    }
+
+    public int[] get(int cx, int cz) {
+        long k = key(cx, cz);
+        synchronized (map) {
+            int[] h = map.get(k);
+            if (h != null) {
+                hits.incrementAndGet();
+                return h;
+            }
+        }
+
+        // 계산은 락 밖에서. 같은 기둥을 두 스레드가 동시에 계산할 수는 있지만 결과는 같다
+        misses.incrementAndGet();
+        int[] h = new int[Chunk.S * Chunk.S];
+        source.fill(cx, cz, h);
+
+        synchronized (map) {
+            int[] prev = map.putIfAbsent(k, h);
+            return prev != null ? prev : h;
+        }
+    }
+
+    public long hits() { return hits.get(); }
+    public long misses() { return misses.get(); }
+
+    public int size() {
+        synchronized (map) {
+            return map.size();
+        }
+    }
+
+    public void clear() {
+        synchronized (map) {
+            map.clear();
+        }
+    }
+
+    private static long key(int cx, int cz) {
+        return ((long) cx << 32) | (cz & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,87 @@
+package me.cubix.world;
+
+import me.cubix.world.chunk.Chunk;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 직육면체 범위의 청크를 ForkJoinPool에서 기둥(cx,cz) 단위로 나눠 생성한다.
+ * 기둥 하나 = 높이맵 한 번 + 세로로 쌓인 청크 전부. 남는 스레드는 work-stealing으로 나눠 가진다.
+ */
+public final class ParallelGenerator {
+    @FunctionalInterface
+    public interface Filter {
+        /** false면 그 청크는 생성하지 않는다 (이미 있음 등). 워커 스레드에서 불린다. */
+        boolean shouldGenerate(int cx, int cy, int cz);
+    }
+
+    @FunctionalInterface
+    public interface Sink {
+        /** 워커 스레드에서 불린다. 스레드 안전해야 함. */
+        void accept(int cx, int cy, int cz, Chunk chunk);
+    }
+
+    private final WorldGen gen;
+    private final ForkJoinPool pool;
+
+    public ParallelGenerator(WorldGen gen) {
+        this(gen, ForkJoinPool.commonPool());
+    }
+
+    public ParallelGenerator(WorldGen gen, ForkJoinPool pool) {
+        this.gen = gen;
+        this.pool = pool;
+    }
+
+    /** 범위는 모두 닫힌 구간. 다 끝날 때까지 블록된다. */
+    public void generate(int minCx, int maxCx, int minCy, int maxCy, int minCz, int maxCz, Filter filter, Sink sink) {
+        if (minCx > maxCx || minCy > maxCy || minCz > maxCz) return;
+        pool.invoke(new Columns(minCx, maxCx, minCz, maxCz, minCy, maxCy, filter, sink));
+    }
+
+    @SuppressWarnings("serial") // ForkJoinTask가 Serializable일 뿐 직렬화할 일은 없다
+    private final class Columns extends RecursiveAction {
+        final int x0, x1, z0, z1, y0, y1;
+        final Filter filter;
+        final Sink sink;
+
+        Columns(int x0, int x1, int z0, int z1, int y0, int y1, Filter filter, Sink sink) {
+            this.x0 = x0; this.x1 = x1;
+            this.z0 = z0; this.z1 = z1;
+            this.y0 = y0; this.y1 = y1;
+            this.filter = filter;
+            this.sink = sink;
+        }
+
+        @Override
+        protected void compute() {
+            int w = x1 - x0 + 1, d = z1 - z0 + 1;
+            if (w == 1 && d == 1) {
+                column(x0, z0);
+                return;
+            }
+            // 긴 축을 반으로
+            if (w >= d) {
+                int mid = x0 + w / 2;
+                invokeAll(new Columns(x0, mid - 1, z0, z1, y0, y1, filter, sink),
+                          new Columns(mid, x1, z0, z1, y0, y1, filter, sink));
+            } else {
+                int mid = z0 + d / 2;
+                invokeAll(new Columns(x0, x1, z0, mid - 1, y0, y1, filter, sink),
+                          new Columns(x0, x1, mid, z1, y0, y1, filter, sink));
+            }
+        }
+
+        private void column(int cx, int cz) {
+            int[] heights = null;
+            for (int cy = y0; cy <= y1; cy++) {
+                if (!filter.shouldGenerate(cx, cy, cz)) continue;
+                if (heights == null) heights = gen.heightmap(cx, cz);
+                Chunk c = new Chunk();
+                gen.fillChunk(cy, heights, c);
+                sink.accept(cx, cy, cz, c);
+            }
+        }
+    }
+}
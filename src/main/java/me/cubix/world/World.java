@@ -1,21 +1,27 @@
 package me.cubix.world;
 
 import me.cubix.world.chunk.Chunk;
+import me.cubix.world.chunk.ChunkMap;
 import me.cubix.world.chunk.ChunkPos;
-import me.cubix.world.save.WorldStorage;
+import me.cubix.world.save.AutosaveService;
 
-import java.io.IOException;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
-public final class World {
-    private final Map<ChunkPos, Chunk> chunks = new HashMap<>();
+public final class World implements AutoCloseable {
+    private final ChunkMap chunks = new ChunkMap();
     private final WorldGen gen;
     private final WorldInfo info;
+    private final ChunkProvider provider;
+    private final ChunkResidency residency = new ChunkResidency();
+    private final AutosaveService autosave;
+    private int focusX, focusY, focusZ;
 
     public World(long seed, WorldInfo info) {
         this.gen = new WorldGen(seed);
         this.info = info;
+        this.autosave = new AutosaveService(info);
+        this.provider = new ChunkProvider(info, gen, autosave);
     }
 
     public short getBlock(int x, int y, int z) {
@@ -26,43 +32,119 @@ public final class World {
         return c.get(lx, ly, lz);
     }
 
+    /** 로드 안 된 청크면 생성하지 않고 fallback을 돌려준다. 프레임 루프용. */
+    public short peekBlock(int x, int y, int z, short fallback) {
+        Chunk c = getChunkIfLoaded(floorDiv(x, Chunk.S), floorDiv(y, Chunk.S), floorDiv(z, Chunk.S));
+        if (c == null) return fallback;
+        return c.get(floorMod(x, Chunk.S), floorMod(y, Chunk.S), floorMod(z, Chunk.S));
+    }
+
+    /** 핫 루프용 커서. 로드/생성은 절대 안 하고, 없는 청크는 fallback으로 읽힌다. */
+    public BlockCursor cursor(short fallback) {
+        return new BlockCursor(this, fallback);
+    }
+
     public void setBlock(int x, int y, int z, short id) {
-        Chunk c = getOrCreateChunk(floorDiv(x, Chunk.S), floorDiv(y, Chunk.S), floorDiv(z, Chunk.S));
-        c.set(floorMod(x, Chunk.S), floorMod(y, Chunk.S), floorMod(z, Chunk.S), id);
-        c.markDirty();
+        int cx = floorDiv(x, Chunk.S), cy = floorDiv(y, Chunk.S), cz = floorDiv(z, Chunk.S);
+        int lx = floorMod(x, Chunk.S), ly = floorMod(y, Chunk.S), lz = floorMod(z, Chunk.S);
+        Chunk c = getOrCreateChunk(cx, cy, cz);
+        int before = c.version();
+        c.set(lx, ly, lz, id);
+        if (c.version() == before) return;
+
+        // 경계 칸이면 맞닿은 이웃의 면도 바뀌므로 그 메시도 다시
+        if (lx == 0) bumpMesh(cx - 1, cy, cz);
+        if (lx == Chunk.MASK) bumpMesh(cx + 1, cy, cz);
+        if (ly == 0) bumpMesh(cx, cy - 1, cz);
+        if (ly == Chunk.MASK) bumpMesh(cx, cy + 1, cz);
+        if (lz == 0) bumpMesh(cx, cy, cz - 1);
+        if (lz == Chunk.MASK) bumpMesh(cx, cy, cz + 1);
+    }
+
+    private void bumpMesh(int cx, int cy, int cz) {
+        Chunk n = getChunkIfLoaded(cx, cy, cz);
+        if (n != null) n.bumpMeshVersion();
     }
 
+    /** 동기 로드/생성. 렌더 루프에서는 getChunkIfLoaded + requestChunk를 쓸 것. */
     public Chunk getOrCreateChunk(int cx, int cy, int cz) {
-        ChunkPos p = new ChunkPos(cx, cy, cz);
-        Chunk c = chunks.get(p);
+        long k = ChunkPos.pack(cx, cy, cz);
+        Chunk c = chunks.get(k);
         if (c != null) return c;
 
-        try {
-            Chunk loaded = WorldStorage.loadChunkIfExists(info, cx, cy, cz);
-            if (loaded != null) {
-                chunks.put(p, loaded);
-                return loaded;
-            }
-        } catch (IOException ex) {
-            ex.printStackTrace();
-        }
-
-        c = new Chunk();
-        gen.generateChunk(cx, cy, cz, c);
-        chunks.put(p, c);
+        c = provider.loadOrGenerate(cx, cy, cz);
+        chunks.put(k, c);
         return c;
     }
 
+    public Chunk getChunkIfLoaded(int cx, int cy, int cz) {
+        return chunks.get(ChunkPos.pack(cx, cy, cz));
+    }
+
+    /** 백그라운드 로드를 건다. 결과는 다음 pumpLoaded() 때 월드에 들어온다. */
+    public CompletableFuture<Chunk> requestChunk(int cx, int cy, int cz) {
+        Chunk c = getChunkIfLoaded(cx, cy, cz);
+        if (c != null) return CompletableFuture.completedFuture(c);
+        return provider.request(cx, cy, cz);
+    }
+
+    /** (cx,cy,cz) 중심 반경 r 큐브를 병렬로 로드/생성하고 월드에 넣는다. 블록됨. */
+    public void preload(int cx, int cy, int cz, int r) {
+        provider.preload(cx, cy, cz, r);
+        pumpLoaded();
+    }
+
+    /** 매 프레임 메인 스레드에서: 우선순위 기준점 갱신 + 완료된 청크 반영. */
+    public void setFocus(int cx, int cy, int cz) {
+        focusX = cx;
+        focusY = cy;
+        focusZ = cz;
+        provider.setFocus(cx, cy, cz);
+    }
+
+    /** 프레임마다: 완료된 로드 반영 + 상주 예산 초과분 내리기 + 주기 저장. 디스크는 안 기다린다. */
+    public void tick() {
+        pumpLoaded();
+        residency.tick(autosave, chunks, focusX, focusY, focusZ);
+        autosave.tick(chunks);
+    }
+
+    public ChunkResidency residency() { return residency; }
+
+    public AutosaveService autosave() { return autosave; }
+
+    public void pumpLoaded() {
+        // 그 사이 동기 경로로 이미 들어온 청크는 덮어쓰지 않는다 (편집 내용 보존)
+        provider.drainReady(r -> chunks.putIfAbsent(r.pos().key(), r.chunk()));
+    }
+
+    public int pendingChunks() { return provider.pendingCount(); }
 
     private static int floorDiv(int a, int b) { return Math.floorDiv(a, b); }
     private static int floorMod(int a, int b) { return Math.floorMod(a, b); }
 
     public WorldInfo info() { return info; }
 
-    public Map<ChunkPos, Chunk> chunksView() { return java.util.Collections.unmodifiableMap(chunks); }
+    /** (x,z)의 생성 지형 지표 높이. 높이맵 캐시를 쓰므로 청크 로드 없이 싸다. */
+    public int surfaceHeight(int x, int z) { return gen.heightAt(x, z); }
+
+    public HeightmapCache heightmaps() { return gen.heightmaps(); }
+
+    public Map<ChunkPos, Chunk> chunksView() { return chunks.asMap(); }
+
+    /** 할당 없는 순회. 순회 중 청크를 추가/제거하면 안 된다. */
+    public void forEachChunk(ChunkMap.Visitor visitor) { chunks.forEach(visitor); }
+
+    public int loadedChunks() { return chunks.size(); }
 
     public int chunkSize() {
         return Chunk.S;
     }
-}
 
+    @Override
+    public void close() {
+        // 진행 중인 저장과 마지막 flush를 먼저 끝낸다. 남은 dirty 청크는 호출 쪽이 saveDirtyChunks로
+        autosave.close();
+        provider.close();
+    }
+}
@@ -4,40 +4,97 @@ import me.cubix.world.block.BlockId;
 import me.cubix.world.chunk.Chunk;
 
 public final class WorldGen {
+    // 렌더 반경 4 기준 보이는 기둥이 81개. 넉넉히 잡아 이동 중에도 재사용되게
+    private static final int HEIGHTMAP_CACHE_COLUMNS = 1024;
+
     private final long seed;
+    private final HeightmapCache heights;
 
     public WorldGen(long seed) {
         this.seed = seed;
+        this.heights = new HeightmapCache(this::fillHeights, HEIGHTMAP_CACHE_COLUMNS);
     }
 
+    private static final int SEA = 22;
+
+    private static final ThreadLocal<short[]> BLOCKS = ThreadLocal.withInitial(() -> new short[Chunk.VOLUME]);
+
     public void generateChunk(int cx, int cy, int cz, Chunk out) {
+        fillChunk(cy, heights.get(cx, cz), out);
+    }
+
+    /** 캐시된 기둥 높이맵 (읽기 전용). */
+    public int[] heightmap(int cx, int cz) {
+        return heights.get(cx, cz);
+    }
+
+    public HeightmapCache heightmaps() { return heights; }
+
+    /** 지표(잔디) 높이. 스폰 위치 잡기 같은 게임플레이 쿼리용, 캐시를 탄다. */
+    public int heightAt(int x, int z) {
+        int[] h = heights.get(Math.floorDiv(x, Chunk.S), Math.floorDiv(z, Chunk.S));
+        return h[Math.floorMod(z, Chunk.S) * Chunk.S + Math.floorMod(x, Chunk.S)];
+    }
+
+    /**
+     * 높이는 x,z에만 의존하므로 (cx,cz) 기둥당 한 번만 계산한다. 보통은 heightmap()으로 캐시를 탈 것.
+     * index = lz * S + lx
+     */
+    public void fillHeights(int cx, int cz, int[] out) {
         int baseX = cx * Chunk.S;
-        int baseY = cy * Chunk.S;
         int baseZ = cz * Chunk.S;
+        for (int lz = 0; lz < Chunk.S; lz++) {
+            int z = baseZ + lz;
+            for (int lx = 0; lx < Chunk.S; lx++) {
+                out[lz * Chunk.S + lx] = surfaceHeight(baseX + lx, z);
+            }
+        }
+    }
+
+    /** 같은 기둥의 높이맵으로 cy 청크를 채운다. */
+    public void fillChunk(int cy, int[] heights, Chunk out) {
+        int baseY = cy * Chunk.S;
+        int topY = baseY + Chunk.S - 1;
+
+        // 기둥 높이 범위가 청크 Y 범위와 안 겹치면 한 종류로 꽉 찬다 (하늘/바다/깊은 돌)
+        int minH = Integer.MAX_VALUE, maxH = Integer.MIN_VALUE;
+        for (int h : heights) {
+            if (h < minH) minH = h;
+            if (h > maxH) maxH = h;
+        }
+        if (baseY > maxH) {
+            if (baseY > SEA) { out.fill(BlockId.AIR); return; }
+            if (topY <= SEA) { out.fill(BlockId.WATER); return; }
+        }
+        if (topY < minH - 3) {
+            out.fill(BlockId.STONE);
+            return;
+        }
+
+        short[] blocks = BLOCKS.get();
 
+        int i = 0; // Chunk.index 순서 (y, z, x)
         for (int ly = 0; ly < Chunk.S; ly++) {
             int y = baseY + ly;
             for (int lz = 0; lz < Chunk.S; lz++) {
-                int z = baseZ + lz;
                 for (int lx = 0; lx < Chunk.S; lx++) {
-                    int x = baseX + lx;
-
-                    short id = sampleBlock(x, y, z);
-                    out.set(lx, ly, lz, id);
+                    blocks[i++] = blockAt(y, heights[lz * Chunk.S + lx]);
                 }
             }
         }
+        // 팔레트 청크에 칸마다 set 하는 것보다 한 번에 넣는 게 싸다
+        out.setAll(blocks);
     }
 
-    private short sampleBlock(int x, int y, int z) {
+    public int surfaceHeight(int x, int z) {
         // 지표 높이(2D FBM)
         double h = 24.0 + 18.0 * fbm2(x * 0.01, z * 0.01, 5);
-        int height = (int)Math.floor(h);
-
-        int sea = 22;
+        return (int)Math.floor(h);
+    }
 
+    private static short blockAt(int y, int height) {
         if (y > height) {
-            return (y <= sea) ? BlockId.WATER : BlockId.AIR;
+            return (y <= SEA) ? BlockId.WATER : BlockId.AIR;
         }
 
         // 지표 아래 층 구성
@@ -1,5 +1,13 @@
 package me.cubix.world;
 
+import me.cubix.world.chunk.ChunkCodec;
+import me.cubix.world.chunk.ChunkCodecs;
+
 import java.nio.file.Path;
 
-public record WorldInfo(String id, String name, long seed, Path dir) {}
+/** codec: 청크를 쓸 때 쓰는 코덱 (meta.properties의 codec=). 읽기는 레코드 헤더를 따른다. */
+public record WorldInfo(String id, String name, long seed, Path dir, ChunkCodec codec) {
+    public WorldInfo(String id, String name, long seed, Path dir) {
+        this(id, name, seed, dir, ChunkCodecs.DEFAULT);
+    }
+}
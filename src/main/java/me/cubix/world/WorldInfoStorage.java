@@ -1,5 +1,7 @@
 package me.cubix.world;
 
+import me.cubix.world.chunk.ChunkCodec;
+import me.cubix.world.chunk.ChunkCodecs;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.IOException;
@@ -30,7 +32,7 @@ public final class WorldInfoStorage {
                 String id = dir.getFileName().toString();
                 String name = p.getProperty("name", id);
                 long seed = Long.parseLong(p.getProperty("seed", "0"));
-                out.add(new WorldInfo(id, name, seed, dir));
+                out.add(new WorldInfo(id, name, seed, dir, codec(p.getProperty("codec"), id)));
             }
             out.sort(Comparator.comparing(WorldInfo::name));
             return out;
@@ -48,11 +50,21 @@ public final class WorldInfoStorage {
         p.setProperty("seed", Long.toString(seed));
         p.setProperty("createdAt", Long.toString(System.currentTimeMillis()));
         p.setProperty("dir", dir.toString());
+        p.setProperty("codec", ChunkCodecs.DEFAULT.name());
 
         try (var out = Files.newOutputStream(dir.resolve("meta.properties"))) {
             p.store(out, "world meta");
         }
-        return new WorldInfo(id, name, seed, dir);
+        return new WorldInfo(id, name, seed, dir, ChunkCodecs.DEFAULT);
+    }
+
+    // 없으면 기본값, 모르는 이름이면 경고 후 기본값 (읽기는 어차피 레코드 헤더를 따른다)
+    private static ChunkCodec codec(String name, String worldId) {
+        if (name == null) return ChunkCodecs.DEFAULT;
+        ChunkCodec c = ChunkCodecs.byName(name.trim());
+        if (c != null) return c;
+        System.err.println("[WORLD] " + worldId + ": unknown codec '" + name + "', using " + ChunkCodecs.DEFAULT.name());
+        return ChunkCodecs.DEFAULT;
     }
 
     public void deleteWorld(WorldInfo info) throws IOException {
@@ -1,28 +1,260 @@
 package me.cubix.world.chunk;
 
+import me.cubix.world.block.BlockId;
+
+/**
+ * 16^3 블록. 팔레트 + 비트 패킹으로 저장한다.
+ *
+ * palette[i] = 실제 블록 id, data에는 칸마다 팔레트 인덱스가 bits 비트씩 들어있다.
+ * bits는 0/1/2/4/8/16 중 하나라 long 하나에 딱 나눠 떨어진다 (칸이 word 경계를 안 걸침).
+ * bits == 0 이면 청크 전체가 palette[0] 한 종류이고 data는 없다.
+ */
 public final class Chunk {
 
-    private boolean dirty = true; // 생성 직후는 저장 대상
-    public boolean isDirty() { return dirty; }
-    public void markDirty() { dirty = true; }
-    public void clearDirty() { dirty = false; }
+    /*
+     * 변경 카운터. 블록이 바뀔 때마다 1씩 오른다 (되돌아가지 않음).
+     * 소비자(저장, 메시, 이후 조명/네트워크)는 각자 마지막으로 처리한 번호를 들고 있다가 다르면 다시 처리한다.
+     */
+    private int version = 1;
+    // 디스크에 있는 내용의 번호. 0 = 한 번도 저장 안 됨 (새로 생성한 청크도 저장 대상)
+    private int savedVersion = 0;
+    // 메시용 번호. 자기 변경 + 맞닿은 이웃 경계 칸 변경 때 오른다
+    private int meshVersion = 1;
+
+    public int version() { return version; }
+
+    public boolean isDirty() { return version != savedVersion; }
+
+    public int savedVersion() { return savedVersion; }
+
+    /** v 시점 내용이 저장됐다. 그 사이 또 바뀌었으면 여전히 dirty. */
+    public void markSaved(int v) { savedVersion = v; }
+
+    public int meshVersion() { return meshVersion; }
+
+    /** 이웃 청크의 맞닿은 칸이 바뀌어서 이 청크 메시도 다시 만들어야 할 때. */
+    public void bumpMeshVersion() { meshVersion++; }
+
+    private void modified() {
+        version++;
+        meshVersion++;
+    }
 
 
     public static final int S = 16;
-    private final short[] blocks = new short[S * S * S]; // y-major든 뭐든 일단 고정
+    public static final int SHIFT = 4;     // S = 1 << SHIFT
+    public static final int MASK = S - 1;
+    public static final int VOLUME = S * S * S;
+
+    private short[] palette = { BlockId.AIR };
+    private int paletteSize = 1;
+    private int bits = 0;
+    private long[] data; // bits == 0 이면 null
 
-    private static int idx(int x, int y, int z) {
-        return (y * S + z) * S + x;
+    public static int index(int x, int y, int z) {
+        return (y * S + z) * S + x; // y-major
     }
 
     public short get(int x, int y, int z) {
-        return blocks[idx(x,y,z)];
+        return get(index(x, y, z));
+    }
+
+    public short get(int index) {
+        if (bits == 0) return palette[0];
+        int perWord = 64 / bits;
+        long word = data[index / perWord];
+        int p = (int) (word >>> ((index % perWord) * bits)) & ((1 << bits) - 1);
+        return palette[p];
     }
 
     public void set(int x, int y, int z, short id) {
-        blocks[idx(x,y,z)] = id;
+        set(index(x, y, z), id);
     }
 
-    public short[] raw() { return blocks; }
-}
+    public void set(int index, short id) {
+        if (get(index) == id) return; // 안 바뀌면 번호도 그대로
+        modified();
+        int p = paletteIndex(id);
+        if (p < 0) {
+            p = addToPalette(id);
+        }
+        if (bits == 0) return; // 같은 값 (팔레트에 하나뿐)
+        writeIndex(data, bits, index, p);
+    }
+
+    /** 전체를 dst(길이 VOLUME 이상)에 풀어놓는다. 통째로 훑을 때는 get()보다 훨씬 싸다. */
+    public void copyTo(short[] dst) {
+        if (bits == 0) {
+            java.util.Arrays.fill(dst, 0, VOLUME, palette[0]);
+            return;
+        }
+        int perWord = 64 / bits;
+        long m = (1L << bits) - 1;
+        int i = 0;
+        for (long word : data) {
+            for (int k = 0; k < perWord; k++) {
+                dst[i++] = palette[(int) (word & m)];
+                word >>>= bits;
+            }
+        }
+    }
+
+    /** src(길이 VOLUME 이상)로 통째로 덮어쓴다. 팔레트도 새로 만들어서 안 쓰는 id가 빠진다. */
+    public void setAll(short[] src) {
+        modified();
+        short[] pal = new short[4];
+        int n = 0;
+        short lastId = src[0];
+        int lastP = 0;
+        pal[n++] = lastId;
+
+        // 1차: 팔레트 수집
+        for (int i = 1; i < VOLUME; i++) {
+            short id = src[i];
+            if (id == lastId) continue;
+            int p = find(pal, n, id);
+            if (p < 0) {
+                if (n == pal.length) pal = java.util.Arrays.copyOf(pal, n * 2);
+                pal[n++] = id;
+            }
+            lastId = id;
+        }
+
+        palette = pal;
+        paletteSize = n;
+        bits = bitsFor(n);
+        if (bits == 0) {
+            data = null;
+            return;
+        }
+
+        // 2차: 인덱스 패킹
+        long[] d = new long[VOLUME * bits / 64];
+        lastId = pal[0];
+        for (int i = 0; i < VOLUME; i++) {
+            short id = src[i];
+            if (id != lastId) {
+                lastP = find(pal, n, id);
+                lastId = id;
+            }
+            writeIndex(d, bits, i, lastP);
+        }
+        data = d;
+    }
+
+    /**
+     * 통째 복사본 (변경 번호 포함). 팔레트 청크라 보통 수백 바이트라 싸다.
+     * 백그라운드 저장에 넘길 스냅샷용: 원본을 계속 고쳐도 복사본은 그대로.
+     */
+    public Chunk copy() {
+        Chunk c = new Chunk();
+        c.palette = palette.clone();
+        c.paletteSize = paletteSize;
+        c.bits = bits;
+        c.data = data == null ? null : data.clone();
+        c.version = version;
+        c.savedVersion = savedVersion;
+        c.meshVersion = meshVersion;
+        return c;
+    }
+
+    /** 한 종류로 꽉 찬 청크. 배열 없이 id 하나만 들고 있다가 다른 값이 set되면 그때 부풀린다. */
+    public static Chunk uniform(short id) {
+        Chunk c = new Chunk();
+        c.fill(id);
+        return c;
+    }
 
+    public void fill(short id) {
+        modified();
+        palette = new short[] { id };
+        paletteSize = 1;
+        bits = 0;
+        data = null;
+    }
+
+    public boolean isUniform() { return bits == 0; }
+
+    /** isUniform()일 때 그 id. 아니면 의미 없음. */
+    public short uniformId() { return palette[0]; }
+
+    public int paletteSize() { return paletteSize; }
+
+    public int bitsPerBlock() { return bits; }
+
+    // 코덱용 (같은 패키지): 내부 표현을 복사 없이 읽고 쓴다. 고치면 안 됨
+    short[] rawPalette() { return palette; }
+
+    long[] rawData() { return data; }
+
+    /** 검증은 호출 쪽 몫: bits == bitsFor(paletteSize), 인덱스 < paletteSize. */
+    static Chunk ofRaw(short[] palette, int paletteSize, int bits, long[] data) {
+        Chunk c = new Chunk();
+        c.palette = palette;
+        c.paletteSize = paletteSize;
+        c.bits = bits;
+        c.data = bits == 0 ? null : data;
+        return c;
+    }
+
+    /** 힙 사용량 대략치 (상주 예산 계산용). */
+    public int estimatedBytes() {
+        return 48 + 16 + palette.length * Short.BYTES + (data == null ? 0 : 16 + data.length * Long.BYTES);
+    }
+
+    private int paletteIndex(short id) {
+        return find(palette, paletteSize, id);
+    }
+
+    private static int find(short[] pal, int n, short id) {
+        for (int i = 0; i < n; i++) if (pal[i] == id) return i;
+        return -1;
+    }
+
+    private int addToPalette(short id) {
+        if (paletteSize == palette.length) {
+            palette = java.util.Arrays.copyOf(palette, Math.max(2, palette.length * 2));
+        }
+        int p = paletteSize++;
+        palette[p] = id;
+
+        int need = bitsFor(paletteSize);
+        if (need != bits) resize(need);
+        return p;
+    }
+
+    private void resize(int newBits) {
+        long[] d = new long[VOLUME * newBits / 64];
+        if (bits != 0) {
+            int perWord = 64 / bits;
+            long m = (1L << bits) - 1;
+            int i = 0;
+            for (long word : data) {
+                for (int k = 0; k < perWord; k++) {
+                    writeIndex(d, newBits, i++, (int) (word & m));
+                    word >>>= bits;
+                }
+            }
+        }
+        // bits == 0 이었으면 전부 팔레트 0번 = 인덱스 0이라 새 배열 그대로면 된다
+        data = d;
+        bits = newBits;
+    }
+
+    private static void writeIndex(long[] d, int bits, int index, int p) {
+        int perWord = 64 / bits;
+        int w = index / perWord;
+        int shift = (index % perWord) * bits;
+        long m = ((1L << bits) - 1) << shift;
+        d[w] = (d[w] & ~m) | ((long) p << shift);
+    }
+
+    static int bitsFor(int paletteSize) {
+        if (paletteSize <= 1) return 0;
+        if (paletteSize <= 2) return 1;
+        if (paletteSize <= 4) return 2;
+        if (paletteSize <= 16) return 4;
+        if (paletteSize <= 256) return 8;
+        return 16;
+    }
+}
@@ -0,0 +1,22 @@
+package me.cubix.world.chunk;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * 청크 본문 인코딩 방식 하나. 레코드 헤더(매직/버전/코덱 id/좌표)는 {@link ChunkCodecs}가 붙이고 읽는다.
+ * 저장 스레드 여러 개가 같은 인스턴스를 같이 쓰므로 스레드 안전해야 한다.
+ */
+public interface ChunkCodec {
+    /** 레코드 헤더에 들어가는 번호. 디스크에 남으므로 한 번 정하면 바꾸면 안 된다. */
+    int id();
+
+    /** meta.properties의 codec= 값. */
+    String name();
+
+    void encode(Chunk c, DataOutputStream out) throws IOException;
+
+    /** in은 본문 시작 위치, 끝은 limit. 저장 번호(markSaved)는 호출 쪽이 맞춘다. */
+    Chunk decode(ByteBuffer in) throws IOException;
+}
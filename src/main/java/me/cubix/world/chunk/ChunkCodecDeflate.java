@@ -0,0 +1,98 @@
+package me.cubix.world.chunk;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 팔레트 본문을 Deflate(raw, zlib 헤더 없음)로 한 번 더 누른다. JDK만 쓴다.
+ * 본문: [int 풀린 길이][deflate 스트림]. 눌러도 안 줄면(단일 값 청크 등) [int -길이][팔레트 본문 그대로].
+ */
+final class ChunkCodecDeflate implements ChunkCodec {
+    // 팔레트 본문 최대: 1 + 2 + 2*4096 + 8*1024
+    private static final int MAX_RAW = 1 + 2 + 2 * Chunk.VOLUME + Chunk.VOLUME * 16 / 8;
+
+    private final int id;
+    private final String name;
+    private final ChunkCodecPalette inner = new ChunkCodecPalette();
+    /*
+     * Deflater/Inflater는 네이티브 상태를 들고 있어서 스레드마다 하나씩 재사용한다.
+     * end()는 안 부른다: 쓰는 스레드가 저장/로더/생성 풀 워커라 프로세스와 수명이 같아서
+     * 스레드가 죽을 때 정리할 일이 사실상 없다 (남으면 Cleaner가 거둔다).
+     * 짧게 사는 스레드에서 많이 쓰게 되면 여기를 풀로 바꿔야 한다.
+     */
+    private final ThreadLocal<Deflater> deflater;
+    private final ThreadLocal<Inflater> inflater = ThreadLocal.withInitial(() -> new Inflater(true));
+    private final ThreadLocal<byte[]> buf = ThreadLocal.withInitial(() -> new byte[MAX_RAW]);
+    private final ThreadLocal<ByteArrayOutputStream> raw = ThreadLocal.withInitial(() -> new ByteArrayOutputStream(MAX_RAW));
+
+    ChunkCodecDeflate(int id, String name, int level) {
+        this.id = id;
+        this.name = name;
+        this.deflater = ThreadLocal.withInitial(() -> new Deflater(level, true));
+    }
+
+    @Override
+    public int id() { return id; }
+
+    @Override
+    public String name() { return name; }
+
+    @Override
+    public void encode(Chunk c, DataOutputStream out) throws IOException {
+        ByteArrayOutputStream bytes = raw.get();
+        bytes.reset();
+        DataOutputStream d = new DataOutputStream(bytes);
+        inner.encode(c, d);
+        d.flush();
+
+        byte[] src = bytes.toByteArray();
+        Deflater def = deflater.get();
+        def.reset();
+        def.setInput(src);
+        def.finish();
+        // 결과는 원본보다 작아야 쓸모가 있으니 원본 길이만큼만 받아본다
+        byte[] tmp = buf.get();
+        int n = 0;
+        while (!def.finished() && n < src.length) n += def.deflate(tmp, n, src.length - n);
+
+        if (!def.finished() || n >= src.length) {
+            out.writeInt(-src.length);
+            out.write(src);
+            return;
+        }
+        out.writeInt(src.length);
+        out.write(tmp, 0, n);
+    }
+
+    @Override
+    public Chunk decode(ByteBuffer in) throws IOException {
+        int len = in.getInt();
+        // MIN_VALUE는 부호를 뒤집어도 음수라 따로 거른다
+        if (len == Integer.MIN_VALUE || len == 0 || Math.abs(len) > MAX_RAW)
+            throw new IOException("Bad deflated chunk length: " + len);
+        if (len < 0) return inner.decode(in);
+
+        Inflater inf = inflater.get();
+        inf.reset();
+        inf.setInput(in);
+        byte[] dst = buf.get();
+        int n = 0;
+        try {
+            while (n < len) {
+                int k = inf.inflate(dst, n, len - n);
+                if (k == 0 && (inf.finished() || inf.needsInput() || inf.needsDictionary())) break;
+                n += k;
+            }
+        } catch (DataFormatException ex) {
+            throw new IOException("Corrupt deflated chunk", ex);
+        }
+        if (n < len) throw new EOFException("Truncated deflated chunk");
+        return inner.decode(ByteBuffer.wrap(dst, 0, len));
+    }
+}
@@ -0,0 +1,62 @@
+package me.cubix.world.chunk;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * 메모리 표현(팔레트 + 비트 패킹)을 그대로 쓴다. 인코드/디코드가 거의 memcpy라 가장 빠르고,
+ * 크기가 칸 종류 수로만 정해져서 울퉁불퉁한 지형에서도 RLE처럼 부풀지 않는다.
+ *
+ * 본문: [byte bits][short 팔레트 크기][short * 크기][long * (4096 * bits / 64)]
+ */
+final class ChunkCodecPalette implements ChunkCodec {
+    @Override
+    public int id() { return 2; }
+
+    @Override
+    public String name() { return "palette"; }
+
+    @Override
+    public void encode(Chunk c, DataOutputStream out) throws IOException {
+        int bits = c.bitsPerBlock();
+        int size = c.paletteSize();
+        short[] palette = c.rawPalette();
+        out.writeByte(bits);
+        out.writeShort(size);
+        for (int i = 0; i < size; i++) out.writeShort(palette[i]);
+        if (bits == 0) return;
+        for (long w : c.rawData()) out.writeLong(w);
+    }
+
+    @Override
+    public Chunk decode(ByteBuffer in) throws IOException {
+        int bits = in.get() & 0xFF;
+        int size = Short.toUnsignedInt(in.getShort());
+        if (size == 0 || Chunk.bitsFor(size) != bits) throw new IOException("Bad chunk palette: size=" + size + " bits=" + bits);
+
+        short[] palette = new short[size];
+        in.asShortBuffer().get(palette);
+        in.position(in.position() + size * Short.BYTES);
+        if (bits == 0) return Chunk.uniform(palette[0]);
+
+        long[] data = new long[Chunk.VOLUME * bits / 64];
+        in.asLongBuffer().get(data);
+        in.position(in.position() + data.length * Long.BYTES);
+
+        // 팔레트 크기가 2의 거듭제곱이 아니면 범위 밖 인덱스가 있을 수 있다
+        if (size != 1 << bits) checkIndices(data, bits, size);
+        return Chunk.ofRaw(palette, size, bits, data);
+    }
+
+    private static void checkIndices(long[] data, int bits, int size) throws IOException {
+        int perWord = 64 / bits;
+        long m = (1L << bits) - 1;
+        for (long word : data) {
+            for (int k = 0; k < perWord; k++) {
+                if ((word & m) >= size) throw new IOException("Chunk palette index out of range");
+                word >>>= bits;
+            }
+        }
+    }
+}
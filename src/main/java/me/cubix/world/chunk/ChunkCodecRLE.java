@@ -1,60 +1,82 @@
 package me.cubix.world.chunk;
 
-import java.io.*;
-import java.nio.file.Files;
-import java.nio.file.Path;
-
-public final class ChunkCodecRLE {
-    private static final int MAGIC = 0x43554258; // "CUBX"
-    private static final int VERSION = 1;
-
-    public static void save(Path file, int cx, int cy, int cz, Chunk c) throws IOException {
-        Files.createDirectories(file.getParent());
-        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
-            out.writeInt(MAGIC);
-            out.writeInt(VERSION);
-            out.writeInt(cx);
-            out.writeInt(cy);
-            out.writeInt(cz);
-
-            // payload: (short id, short run)
-            int total = Chunk.S * Chunk.S * Chunk.S;
-            int i = 0;
-            while (i < total) {
-                short v = c.raw()[i];
-                int run = 1;
-                while (i + run < total && run < 0xFFFF && c.raw()[i + run] == v) run++;
-                out.writeShort(v);
-                out.writeShort(run);
-                i += run;
-            }
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ShortBuffer;
+import java.util.Arrays;
+
+/** (short id, short run) 쌍. v1 레코드의 본문이 이 형식이다. */
+final class ChunkCodecRLE implements ChunkCodec {
+    // 최악의 경우(모든 칸이 다름) 4096쌍
+    private static final ThreadLocal<short[]> SCRATCH =
+            ThreadLocal.withInitial(() -> new short[Chunk.VOLUME * 2]);
+    // 팔레트 청크를 풀어놓는 버퍼
+    private static final ThreadLocal<short[]> BLOCKS =
+            ThreadLocal.withInitial(() -> new short[Chunk.VOLUME]);
+
+    @Override
+    public int id() { return 1; }
+
+    @Override
+    public String name() { return "rle"; }
+
+    @Override
+    public void encode(Chunk c, DataOutputStream out) throws IOException {
+        // 단일 값 청크는 레코드 하나로 끝
+        if (c.isUniform()) {
+            out.writeShort(c.uniformId());
+            out.writeShort(Chunk.VOLUME);
+            return;
+        }
+
+        short[] blocks = BLOCKS.get();
+        c.copyTo(blocks);
+        int total = Chunk.VOLUME;
+        int i = 0;
+        while (i < total) {
+            short v = blocks[i];
+            int run = 1;
+            while (i + run < total && run < 0xFFFF && blocks[i + run] == v) run++;
+            out.writeShort(v);
+            out.writeShort(run);
+            i += run;
         }
     }
 
-    public static Chunk load(Path file, int expectedCx, int expectedCy, int expectedCz) throws IOException {
-        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
-            int magic = in.readInt();
-            if (magic != MAGIC) throw new IOException("Bad chunk magic");
-            int ver = in.readInt();
-            if (ver != VERSION) throw new IOException("Unsupported chunk ver: " + ver);
-
-            int cx = in.readInt(), cy = in.readInt(), cz = in.readInt();
-            if (cx != expectedCx || cy != expectedCy || cz != expectedCz)
-                throw new IOException("Chunk coord mismatch");
-
-            Chunk c = new Chunk();
-            int total = Chunk.S * Chunk.S * Chunk.S;
-            int i = 0;
-            short[] raw = c.raw();
-            while (i < total) {
-                short id = in.readShort();
-                int run = in.readUnsignedShort();
-                for (int k = 0; k < run && i < total; k++) raw[i++] = id;
-            }
-            c.clearDirty();
+    @Override
+    public Chunk decode(ByteBuffer in) throws IOException {
+        // 단일 값 청크: 배열을 안 만든다
+        if (in.remaining() == 2 * Short.BYTES && Short.toUnsignedInt(in.getShort(in.position() + Short.BYTES)) >= Chunk.VOLUME) {
+            Chunk c = Chunk.uniform(in.getShort());
+            in.getShort();
             return c;
         }
-    }
 
-    private ChunkCodecRLE() {}
+        // (id, run) 쌍을 ShortBuffer로 한 번에 긁어온 뒤 run 단위로 Arrays.fill
+        ShortBuffer pairs = in.slice().asShortBuffer();
+        int n = pairs.remaining() & ~1;
+        short[] scratch = SCRATCH.get();
+        if (scratch.length < n) {
+            scratch = new short[n];
+            SCRATCH.set(scratch);
+        }
+        pairs.get(scratch, 0, n);
+        in.position(in.position() + n * Short.BYTES);
+
+        int total = Chunk.VOLUME;
+        short[] raw = BLOCKS.get();
+        int i = 0;
+        for (int p = 0; p < n && i < total; p += 2) {
+            int run = Math.min(Short.toUnsignedInt(scratch[p + 1]), total - i);
+            Arrays.fill(raw, i, i + run, scratch[p]);
+            i += run;
+        }
+        if (i < total) throw new EOFException("Truncated chunk record");
+
+        Chunk c = new Chunk();
+        c.setAll(raw);
+        return c;
+    }
 }
@@ -0,0 +1,89 @@
+package me.cubix.world.chunk;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.zip.Deflater;
+
+/**
+ * 청크 레코드 = 헤더 + 코덱 본문. 레코드마다 코덱 id가 들어 있어서 월드의 코덱을 바꿔도
+ * 예전 레코드는 그대로 읽힌다 (다음 저장 때 새 코덱으로 다시 쓰임).
+ *
+ * v1: [int MAGIC][int 1][int cx][int cy][int cz] + RLE 본문 (20바이트 헤더)
+ * v2: [int MAGIC][byte 2][byte 코덱 id][int cx][int cy][int cz] + 본문 (18바이트 헤더)
+ * v1의 버전 int는 빅엔디언이라 첫 바이트가 0이다. 그래서 버전 바이트 하나로 둘을 가른다.
+ */
+public final class ChunkCodecs {
+    private static final int MAGIC = 0x43554258; // "CUBX"
+    private static final int V1 = 1;
+    private static final int V2 = 2;
+
+    public static final ChunkCodec RLE = new ChunkCodecRLE();
+    public static final ChunkCodec PALETTE = new ChunkCodecPalette();
+    public static final ChunkCodec DEFLATE = new ChunkCodecDeflate(3, "deflate", Deflater.BEST_SPEED);
+
+    /** meta.properties에 codec=이 없는 월드(예전 월드 포함)와 새 월드가 쓰는 코덱. */
+    public static final ChunkCodec DEFAULT = DEFLATE;
+
+    private static final List<ChunkCodec> ALL = List.of(RLE, PALETTE, DEFLATE);
+
+    public static List<ChunkCodec> all() { return ALL; }
+
+    /** 모르는 이름이면 null. */
+    public static ChunkCodec byName(String name) {
+        for (ChunkCodec c : ALL) if (c.name().equals(name)) return c;
+        return null;
+    }
+
+    private static ChunkCodec byId(int id) throws IOException {
+        for (ChunkCodec c : ALL) if (c.id() == id) return c;
+        throw new IOException("Unknown chunk codec: " + id);
+    }
+
+    public static byte[] encode(ChunkCodec codec, int cx, int cy, int cz, Chunk c) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeByte(V2);
+            out.writeByte(codec.id());
+            out.writeInt(cx);
+            out.writeInt(cy);
+            out.writeInt(cz);
+            codec.encode(c, out);
+        }
+        return bytes.toByteArray();
+    }
+
+    /** 헤더를 보고 코덱을 고른다. 돌려주는 청크는 "디스크와 같음"(dirty 아님) 상태. */
+    public static Chunk decode(ByteBuffer in, int expectedCx, int expectedCy, int expectedCz) throws IOException {
+        try {
+            int magic = in.getInt();
+            if (magic != MAGIC) throw new IOException("Bad chunk magic");
+
+            ChunkCodec codec;
+            if (in.get(in.position()) == 0) {
+                int ver = in.getInt();
+                if (ver != V1) throw new IOException("Unsupported chunk ver: " + ver);
+                codec = RLE;
+            } else {
+                int ver = in.get();
+                if (ver != V2) throw new IOException("Unsupported chunk ver: " + ver);
+                codec = byId(in.get() & 0xFF);
+            }
+
+            int cx = in.getInt(), cy = in.getInt(), cz = in.getInt();
+            if (cx != expectedCx || cy != expectedCy || cz != expectedCz)
+                throw new IOException("Chunk coord mismatch");
+
+            Chunk c = codec.decode(in);
+            c.markSaved(c.version());
+            return c;
+        } catch (java.nio.BufferUnderflowException ex) {
+            throw new java.io.EOFException("Truncated chunk record");
+        }
+    }
+
+    private ChunkCodecs() {}
+}
@@ -0,0 +1,213 @@
+package me.cubix.world.chunk;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * 패킹된 청크 좌표(long) → Chunk 오픈 어드레싱 해시맵 (선형 탐사).
+ * get/put 경로에서 객체를 만들지 않는다. 단일 스레드 전용.
+ */
+public final class ChunkMap {
+    @FunctionalInterface
+    public interface Visitor {
+        void visit(int cx, int cy, int cz, Chunk chunk);
+    }
+
+    private long[] keys;
+    private Chunk[] values; // null = 빈 칸
+    private int mask;
+    private int size;
+    private int resizeAt;
+
+    public ChunkMap() {
+        this(1024);
+    }
+
+    public ChunkMap(int expected) {
+        int cap = Integer.highestOneBit(Math.max(16, expected * 2 - 1)) << 1;
+        alloc(cap);
+    }
+
+    private void alloc(int cap) {
+        keys = new long[cap];
+        values = new Chunk[cap];
+        mask = cap - 1;
+        resizeAt = cap / 2; // load factor 0.5: 선형 탐사가 짧게 유지됨
+    }
+
+    private static int slot(long key, int mask) {
+        // murmur3 finalizer
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) h & mask;
+    }
+
+    public Chunk get(int cx, int cy, int cz) {
+        return get(ChunkPos.pack(cx, cy, cz));
+    }
+
+    public Chunk get(long key) {
+        int i = slot(key, mask);
+        Chunk v;
+        while ((v = values[i]) != null) {
+            if (keys[i] == key) return v;
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+
+    public boolean contains(long key) {
+        return get(key) != null;
+    }
+
+    /** 이전 값을 돌려준다. */
+    public Chunk put(long key, Chunk chunk) {
+        if (chunk == null) throw new NullPointerException("chunk");
+        int i = slot(key, mask);
+        Chunk v;
+        while ((v = values[i]) != null) {
+            if (keys[i] == key) {
+                values[i] = chunk;
+                return v;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = chunk;
+        if (++size > resizeAt) rehash(values.length << 1);
+        return null;
+    }
+
+    /** 이미 있으면 기존 값을 돌려주고 아무것도 안 한다. */
+    public Chunk putIfAbsent(long key, Chunk chunk) {
+        Chunk existing = get(key);
+        if (existing != null) return existing;
+        put(key, chunk);
+        return null;
+    }
+
+    public Chunk remove(long key) {
+        int i = slot(key, mask);
+        Chunk v;
+        while ((v = values[i]) != null) {
+            if (keys[i] == key) {
+                shiftBack(i);
+                size--;
+                return v;
+            }
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+
+    // 삭제 후 뒤따르는 클러스터를 당겨서 tombstone 없이 탐사 체인을 유지
+    private void shiftBack(int hole) {
+        int i = hole;
+        while (true) {
+            i = (i + 1) & mask;
+            Chunk v = values[i];
+            if (v == null) break;
+            int home = slot(keys[i], mask);
+            // home이 (hole, i] 구간 밖이면 hole로 옮겨도 된다
+            boolean between = hole <= i ? (hole < home && home <= i) : (hole < home || home <= i);
+            if (between) continue;
+            keys[hole] = keys[i];
+            values[hole] = v;
+            hole = i;
+        }
+        values[hole] = null;
+        keys[hole] = 0;
+    }
+
+    private void rehash(int cap) {
+        long[] oldKeys = keys;
+        Chunk[] oldValues = values;
+        alloc(cap);
+        for (int j = 0; j < oldValues.length; j++) {
+            Chunk v = oldValues[j];
+            if (v == null) continue;
+            int i = slot(oldKeys[j], mask);
+            while (values[i] != null) i = (i + 1) & mask;
+            keys[i] = oldKeys[j];
+            values[i] = v;
+        }
+    }
+
+    public int size() { return size; }
+
+    public boolean isEmpty() { return size == 0; }
+
+    public void clear() {
+        java.util.Arrays.fill(values, null);
+        size = 0;
+    }
+
+    /** 순회 중에 맵을 바꾸면 안 된다. */
+    public void forEach(Visitor visitor) {
+        long[] ks = keys;
+        Chunk[] vs = values;
+        for (int i = 0; i < vs.length; i++) {
+            Chunk v = vs[i];
+            if (v == null) continue;
+            long k = ks[i];
+            visitor.visit(ChunkPos.unpackX(k), ChunkPos.unpackY(k), ChunkPos.unpackZ(k), v);
+        }
+    }
+
+    /** 읽기 전용 Map 뷰. 순회할 때만 ChunkPos/Entry를 만든다 (저장 같은 콜드 패스용). */
+    public Map<ChunkPos, Chunk> asMap() {
+        return view;
+    }
+
+    private final Map<ChunkPos, Chunk> view = new AbstractMap<>() {
+        @Override
+        public int size() { return size; }
+
+        @Override
+        public Chunk get(Object key) {
+            return key instanceof ChunkPos p ? ChunkMap.this.get(p.key()) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public Set<Entry<ChunkPos, Chunk>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public int size() { return size; }
+
+                @Override
+                public Iterator<Entry<ChunkPos, Chunk>> iterator() {
+                    return new Iterator<>() {
+                        int next = advance(0);
+
+                        private int advance(int from) {
+                            while (from < values.length && values[from] == null) from++;
+                            return from;
+                        }
+
+                        @Override
+                        public boolean hasNext() { return next < values.length; }
+
+                        @Override
+                        public Entry<ChunkPos, Chunk> next() {
+                            if (!hasNext()) throw new NoSuchElementException();
+                            int i = next;
+                            next = advance(i + 1);
+                            return new SimpleImmutableEntry<>(ChunkPos.of(keys[i]), values[i]);
+                        }
+                    };
+                }
+            };
+        }
+    };
+}
@@ -1,4 +1,26 @@
 package me.cubix.world.chunk;
 
 public record ChunkPos(int x, int y, int z) {
+    private static final int BITS = 21;
+    private static final long MASK = (1L << BITS) - 1;
+
+    /**
+     * 청크 좌표 3개를 long 하나로. 축마다 21비트(2의 보수)라 ±1,048,575 청크까지 표현된다.
+     * unpack 쪽에서 부호 확장을 하므로 음수 좌표도 그대로 돌아온다.
+     */
+    public static long pack(int cx, int cy, int cz) {
+        return ((cx & MASK) << (BITS * 2))
+                | ((cy & MASK) << BITS)
+                | (cz & MASK);
+    }
+
+    public static int unpackX(long key) { return (int) ((key << (64 - BITS * 3)) >> (64 - BITS)); }
+    public static int unpackY(long key) { return (int) ((key << (64 - BITS * 2)) >> (64 - BITS)); }
+    public static int unpackZ(long key) { return (int) ((key << (64 - BITS)) >> (64 - BITS)); }
+
+    public static ChunkPos of(long key) {
+        return new ChunkPos(unpackX(key), unpackY(key), unpackZ(key));
+    }
+
+    public long key() { return pack(x, y, z); }
 }
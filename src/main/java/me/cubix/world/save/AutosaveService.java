@@ -0,0 +1,250 @@
+package me.cubix.world.save;
+
+import me.cubix.world.WorldInfo;
+import me.cubix.world.chunk.Chunk;
+import me.cubix.world.chunk.ChunkCodecs;
+import me.cubix.world.chunk.ChunkMap;
+import me.cubix.world.chunk.ChunkPos;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 주기적 백그라운드 저장.
+ *
+ * 메인 스레드는 {@link #tick}에서 dirty 청크의 복사본만 뜨고 바로 돌아간다.
+ * 인코딩/쓰기는 I/O 스레드(기본 2개)에서 하고, 한 번의 저장이 다 끝나면 fsync는 한 번만 한다.
+ * 같은 청크의 쓰기는 요청 순서대로 이어 붙여서 옛 스냅샷이 새 내용을 덮는 일이 없다.
+ * 저장 완료는 다음 tick에서 메인 스레드가 {@link Chunk#markSaved}로 반영한다.
+ */
+public final class AutosaveService implements AutoCloseable {
+    private record Snapshot(long key, Chunk chunk, int version, Chunk copy) {}
+    private record Saved(Chunk chunk, int version) {}
+
+    private final WorldInfo info;
+    private final ThreadPoolExecutor io;
+    private final Map<Long, CompletableFuture<Void>> lastWrite = new ConcurrentHashMap<>();
+    private final Queue<Saved> saved = new ConcurrentLinkedQueue<>();
+    // 상주 예산으로 내렸는데 아직 디스크에 안 쓴 청크. 다시 로드되면 디스크 대신 이걸 쓴다
+    private final Map<Long, Chunk> evicted = new ConcurrentHashMap<>();
+
+    private long intervalNanos = TimeUnit.SECONDS.toNanos(30);
+    private long lastPass = System.nanoTime();
+    private CompletableFuture<Void> pass = CompletableFuture.completedFuture(null);
+
+    // 통계
+    private volatile long lastPassMillis, lastPassBytes;
+    private final AtomicLong maxPassMillis = new AtomicLong(); // I/O 스레드에서 갱신
+    private volatile int lastPassChunks;
+    private final AtomicLong totalBytes = new AtomicLong();
+    private final AtomicLong totalChunks = new AtomicLong();
+    private final AtomicInteger passes = new AtomicInteger();
+    private final AtomicInteger failures = new AtomicInteger();
+
+    public AutosaveService(WorldInfo info) {
+        this(info, 2);
+    }
+
+    public AutosaveService(WorldInfo info, int ioThreads) {
+        this.info = info;
+        AtomicInteger n = new AtomicInteger();
+        this.io = new ThreadPoolExecutor(ioThreads, ioThreads, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                r -> {
+                    Thread t = new Thread(r, "chunk-saver-" + n.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    /** 메인 스레드, 매 프레임. 완료된 저장 반영 + 주기가 됐으면 새 저장 시작. 디스크는 안 기다린다. */
+    public void tick(ChunkMap chunks) {
+        applySaved();
+        if (!pass.isDone()) return;
+        long now = System.nanoTime();
+        if (now - lastPass < intervalNanos) return;
+        lastPass = now;
+        startPass(chunks);
+    }
+
+    /** 다음 tick에 주기와 상관없이 저장. */
+    public void requestSave() {
+        lastPass = System.nanoTime() - intervalNanos;
+    }
+
+    private void startPass(ChunkMap chunks) {
+        List<Snapshot> snaps = new ArrayList<>();
+        chunks.forEach((cx, cy, cz, c) -> {
+            if (c.isDirty()) snaps.add(new Snapshot(ChunkPos.pack(cx, cy, cz), c, c.version(), c.copy()));
+        });
+        // 내렸다가 쓰기 실패한 청크도 다시 시도
+        for (Map.Entry<Long, Chunk> e : evicted.entrySet()) {
+            if (!lastWrite.containsKey(e.getKey())) writeEvicted(e.getKey(), e.getValue());
+        }
+        if (snaps.isEmpty()) return;
+
+        long start = System.nanoTime();
+        AtomicLong bytes = new AtomicLong();
+        AtomicInteger written = new AtomicInteger();
+        CompletableFuture<?>[] writes = new CompletableFuture<?>[snaps.size()];
+        for (int i = 0; i < writes.length; i++) {
+            Snapshot s = snaps.get(i);
+            writes[i] = write(s.key, s.copy, n -> {
+                bytes.addAndGet(n);
+                written.incrementAndGet();
+                saved.add(new Saved(s.chunk, s.version));
+            });
+        }
+
+        pass = CompletableFuture.allOf(writes)
+                .handleAsync((r, ex) -> {
+                    flush();
+                    long ms = (System.nanoTime() - start) / 1_000_000;
+                    lastPassMillis = ms;
+                    maxPassMillis.accumulateAndGet(ms, Math::max);
+                    lastPassBytes = bytes.get();
+                    lastPassChunks = written.get();
+                    passes.incrementAndGet();
+                    System.out.println("[SAVE] autosave chunks=" + written.get() + "/" + snaps.size()
+                            + " bytes=" + bytes.get() + " ms=" + ms);
+                    return null;
+                }, io);
+    }
+
+    /**
+     * 상주 예산으로 내리는 청크. 맵에서는 빠지므로 복사 없이 그대로 넘긴다 (이후 아무도 안 고침).
+     * 쓰기가 끝날 때까지 {@link #takeEvicted}로 되찾을 수 있다.
+     */
+    public void saveEvicted(int cx, int cy, int cz, Chunk c) {
+        long key = ChunkPos.pack(cx, cy, cz);
+        evicted.put(key, c);
+        writeEvicted(key, c);
+    }
+
+    private void writeEvicted(long key, Chunk c) {
+        int v = c.version();
+        write(key, c, n -> {
+            c.markSaved(v); // 맵에 없는 청크라 메인 스레드와 안 겹친다
+            evicted.remove(key, c);
+        });
+    }
+
+    /**
+     * 내렸지만 아직 저장 중인 청크가 있으면 그 복사본 (로더 스레드에서 호출).
+     * 목록에서도 뺀다: 이제 다시 로드된 복사본(아직 dirty)이 원본이라, 옛 객체를 재시도하면
+     * 그 뒤에 편집해서 저장한 내용을 덮어쓸 수 있다. 진행 중인 옛 쓰기는 lastWrite 순서상 새 쓰기보다 앞선다.
+     */
+    public Chunk takeEvicted(int cx, int cy, int cz) {
+        Chunk c = evicted.remove(ChunkPos.pack(cx, cy, cz));
+        return c == null ? null : c.copy();
+    }
+
+    private interface Done {
+        void written(int bytes);
+    }
+
+    // 같은 key의 이전 쓰기 뒤에 이어 붙인다
+    private CompletableFuture<Void> write(long key, Chunk c, Done done) {
+        CompletableFuture<Void> f = lastWrite.compute(key, (k, prev) -> {
+            Runnable task = () -> {
+                try {
+                    done.written(writeNow(key, c));
+                } catch (IOException ex) {
+                    // 실패한 청크는 dirty로 남아서 다음 저장 때 다시 시도된다
+                    failures.incrementAndGet();
+                    ex.printStackTrace();
+                }
+            };
+            // 앞 쓰기가 예외로 끝나도 이어서 실행
+            return prev == null ? CompletableFuture.runAsync(task, io)
+                    : prev.handleAsync((r, ex) -> { task.run(); return (Void) null; }, io);
+        });
+        f.whenComplete((r, ex) -> lastWrite.remove(key, f));
+        return f;
+    }
+
+    // 지금 스레드에서 인코드해서 region에 쓴다 (fsync는 안 함). 쓴 바이트 수
+    private int writeNow(long key, Chunk c) throws IOException {
+        int cx = ChunkPos.unpackX(key), cy = ChunkPos.unpackY(key), cz = ChunkPos.unpackZ(key);
+        byte[] data = ChunkCodecs.encode(info.codec(), cx, cy, cz, c);
+        WorldStorage.regions(info).write(cx, cy, cz, data);
+        totalBytes.addAndGet(data.length);
+        totalChunks.incrementAndGet();
+        return data.length;
+    }
+
+    private void flush() {
+        try {
+            WorldStorage.regions(info).flush();
+        } catch (IOException ex) {
+            failures.incrementAndGet();
+            ex.printStackTrace();
+        }
+    }
+
+    private void applySaved() {
+        Saved s;
+        while ((s = saved.poll()) != null) {
+            if (s.version > s.chunk.savedVersion()) s.chunk.markSaved(s.version);
+        }
+    }
+
+    public void setInterval(long seconds) {
+        this.intervalNanos = TimeUnit.SECONDS.toNanos(seconds);
+    }
+
+    public boolean isSaving() { return !pass.isDone() || !lastWrite.isEmpty(); }
+
+    public long lastPassMillis() { return lastPassMillis; }
+
+    public long maxPassMillis() { return maxPassMillis.get(); }
+
+    public long lastPassBytes() { return lastPassBytes; }
+
+    public int lastPassChunks() { return lastPassChunks; }
+
+    public long totalBytes() { return totalBytes.get(); }
+
+    public long totalChunks() { return totalChunks.get(); }
+
+    public int passes() { return passes.get(); }
+
+    public int failures() { return failures.get(); }
+
+    /**
+     * 메인 스레드. 진행 중인 쓰기를 다 기다리고, 쓰기에 실패해 남은 내린 청크를 여기서 한 번 더 쓴 뒤
+     * fsync하고 완료를 반영한다. 새 저장은 시작하지 않는다.
+     * (내린 청크는 맵에 없어서 뒤따르는 saveDirtyChunks가 못 본다)
+     */
+    @Override
+    public void close() {
+        try {
+            pass.join();
+            while (!lastWrite.isEmpty()) {
+                for (CompletableFuture<Void> f : new ArrayList<>(lastWrite.values())) f.join();
+            }
+        } catch (CompletionException ex) {
+            ex.printStackTrace();
+        }
+        for (Map.Entry<Long, Chunk> e : evicted.entrySet()) {
+            long key = e.getKey();
+            try {
+                writeNow(key, e.getValue());
+                evicted.remove(key, e.getValue());
+            } catch (IOException ex) {
+                failures.incrementAndGet();
+                System.err.println("[SAVE] lost evicted chunk " + ChunkPos.unpackX(key) + "," + ChunkPos.unpackY(key)
+                        + "," + ChunkPos.unpackZ(key) + ": " + ex.getMessage());
+            }
+        }
+        flush();
+        io.shutdown();
+        applySaved();
+    }
+}
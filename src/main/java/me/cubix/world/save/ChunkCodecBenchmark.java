@@ -0,0 +1,114 @@
+package me.cubix.world.save;
+
+import me.cubix.world.ParallelGenerator;
+import me.cubix.world.WorldGen;
+import me.cubix.world.chunk.Chunk;
+import me.cubix.world.chunk.ChunkCodec;
+import me.cubix.world.chunk.ChunkCodecs;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 생성 지형으로 코덱들을 비교한다: 청크당 바이트, 인코드/디코드 MB/s.
+ * MB/s는 풀린 블록 데이터(청크당 4096 * 2바이트) 기준이라 코덱끼리 바로 비교된다.
+ *
+ * 인자: [seed] [반경(청크)] [반복 횟수]
+ */
+public final class ChunkCodecBenchmark {
+    private record Sample(int cx, int cy, int cz, Chunk chunk) {}
+
+    public static void main(String[] args) throws IOException {
+        long seed = args.length > 0 ? Long.parseLong(args[0]) : 12345L;
+        int r = args.length > 1 ? Integer.parseInt(args[1]) : 6;
+        int iterations = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        List<Sample> samples = generate(seed, r);
+        int mixed = 0;
+        for (Sample s : samples) if (!s.chunk.isUniform()) mixed++;
+        System.out.println("chunks=" + samples.size() + " non-uniform=" + mixed + " iterations=" + iterations);
+        System.out.printf("%-10s %10s %12s %10s %12s %12s%n",
+                "codec", "avg B", "avg B mixed", "max B", "enc MB/s", "dec MB/s");
+
+        for (ChunkCodec codec : ChunkCodecs.all()) {
+            byte[][] encoded = new byte[samples.size()][];
+            verify(codec, samples, encoded);
+
+            long encNanos = Long.MAX_VALUE, decNanos = Long.MAX_VALUE;
+            for (int it = 0; it < iterations; it++) {
+                long t0 = System.nanoTime();
+                for (int i = 0; i < samples.size(); i++) {
+                    Sample s = samples.get(i);
+                    encoded[i] = ChunkCodecs.encode(codec, s.cx, s.cy, s.cz, s.chunk);
+                }
+                long t1 = System.nanoTime();
+                for (int i = 0; i < samples.size(); i++) {
+                    Sample s = samples.get(i);
+                    ChunkCodecs.decode(ByteBuffer.wrap(encoded[i]), s.cx, s.cy, s.cz);
+                }
+                long t2 = System.nanoTime();
+                // 가장 빠른 회차 = JIT가 다 돈 뒤
+                encNanos = Math.min(encNanos, t1 - t0);
+                decNanos = Math.min(decNanos, t2 - t1);
+            }
+
+            long total = 0, totalMixed = 0;
+            int max = 0;
+            for (int i = 0; i < samples.size(); i++) {
+                int n = encoded[i].length;
+                total += n;
+                if (!samples.get(i).chunk.isUniform()) totalMixed += n;
+                max = Math.max(max, n);
+            }
+            double rawMb = samples.size() * (double) (Chunk.VOLUME * Short.BYTES) / (1024 * 1024);
+            System.out.printf("%-10s %10.1f %12.1f %10d %12.1f %12.1f%n",
+                    codec.name(),
+                    total / (double) samples.size(),
+                    mixed == 0 ? 0.0 : totalMixed / (double) mixed,
+                    max,
+                    rawMb / (encNanos / 1e9),
+                    rawMb / (decNanos / 1e9));
+        }
+    }
+
+    // 지표 근처를 넉넉히 덮는 세로 범위: 공기/물/땅 청크가 실제 월드 비율로 섞인다
+    private static List<Sample> generate(long seed, int r) {
+        WorldGen gen = new WorldGen(seed);
+        int minH = Integer.MAX_VALUE, maxH = Integer.MIN_VALUE;
+        for (int cx = -r; cx <= r; cx++) {
+            for (int cz = -r; cz <= r; cz++) {
+                for (int h : gen.heightmap(cx, cz)) {
+                    minH = Math.min(minH, h);
+                    maxH = Math.max(maxH, h);
+                }
+            }
+        }
+        int minCy = Math.floorDiv(minH, Chunk.S) - 2;
+        int maxCy = Math.floorDiv(maxH, Chunk.S) + 1;
+
+        List<Sample> out = Collections.synchronizedList(new ArrayList<>());
+        new ParallelGenerator(gen).generate(-r, r, minCy, maxCy, -r, r,
+                (x, y, z) -> true,
+                (x, y, z, c) -> out.add(new Sample(x, y, z, c)));
+        return new ArrayList<>(out);
+    }
+
+    private static void verify(ChunkCodec codec, List<Sample> samples, byte[][] encoded) throws IOException {
+        short[] a = new short[Chunk.VOLUME], b = new short[Chunk.VOLUME];
+        for (int i = 0; i < samples.size(); i++) {
+            Sample s = samples.get(i);
+            encoded[i] = ChunkCodecs.encode(codec, s.cx, s.cy, s.cz, s.chunk);
+            Chunk back = ChunkCodecs.decode(ByteBuffer.wrap(encoded[i]), s.cx, s.cy, s.cz);
+            s.chunk.copyTo(a);
+            back.copyTo(b);
+            if (!Arrays.equals(a, b))
+                throw new IllegalStateException(codec.name() + " round trip failed at " + s.cx + "," + s.cy + "," + s.cz);
+        }
+    }
+
+    private ChunkCodecBenchmark() {}
+}
@@ -0,0 +1,181 @@
+package me.cubix.world.save;
+
+import me.cubix.world.ParallelGenerator;
+import me.cubix.world.WorldGen;
+import me.cubix.world.WorldInfo;
+import me.cubix.world.chunk.Chunk;
+import me.cubix.world.chunk.ChunkCodecs;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 창 없이 스폰 주변 지형을 미리 만들어 region에 써둔다 (빌드 머신에서 월드를 배포하기 전에).
+ * 기둥 단위 ForkJoin(work-stealing) 생성 → 워커에서 바로 인코드/쓰기, 몇 초마다 flush.
+ *
+ * 중간에 끊어도 flush된 청크까지는 디스크에 커밋돼 있으므로 다시 돌리면 이미 있는 청크는 건너뛴다.
+ * 세로 범위는 영역 높이맵의 최저~최고 지표 근처만. 그 위(공기)와 깊은 땅속은 단일 값 청크라 게임 중 생성이 거의 공짜다.
+ */
+public final class Pregenerator {
+    private static final long REPORT_NANOS = 1_000_000_000L;
+    private static final long FLUSH_NANOS = 5_000_000_000L;
+
+    private final WorldInfo info;
+    private final int radius;
+    private final int threads;
+
+    private final AtomicInteger generated = new AtomicInteger();
+    private final AtomicInteger skipped = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final AtomicLong bytes = new AtomicLong();
+    private volatile boolean stopping;
+
+    public Pregenerator(WorldInfo info, int radius, int threads) {
+        this.info = info;
+        this.radius = radius;
+        this.threads = threads;
+    }
+
+    public void run() throws IOException {
+        WorldGen gen = new WorldGen(info.seed());
+        int minH = Integer.MAX_VALUE, maxH = Integer.MIN_VALUE;
+        for (int cx = -radius; cx <= radius; cx++) {
+            for (int cz = -radius; cz <= radius; cz++) {
+                for (int h : gen.heightmap(cx, cz)) {
+                    minH = Math.min(minH, h);
+                    maxH = Math.max(maxH, h);
+                }
+            }
+        }
+        int minCy = Math.floorDiv(minH, Chunk.S) - 2;
+        int maxCy = Math.floorDiv(maxH, Chunk.S) + 1;
+        int side = 2 * radius + 1;
+        long total = (long) side * side * (maxCy - minCy + 1);
+        System.out.println("[PREGEN] " + info.id() + " seed=" + info.seed() + " codec=" + info.codec().name()
+                + " radius=" + radius + " cy=" + minCy + ".." + maxCy + " chunks=" + total + " threads=" + threads);
+
+        /*
+         * Ctrl+C: 새 청크는 그만 받게 하고, 정리는 run()이 끝내길 기다린다.
+         * 훅에서 바로 닫으면 쓰던 워커/리포터가 WorldStorage.regions()로 새 캐시를 열어버려서
+         * 그 쓰기는 flush도 close도 안 된 채 사라진다.
+         */
+        CountDownLatch finished = new CountDownLatch(1);
+        Thread hook = new Thread(() -> {
+            stopping = true;
+            try {
+                finished.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }, "pregen-shutdown");
+        Runtime.getRuntime().addShutdownHook(hook);
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        CountDownLatch stopReporter = new CountDownLatch(1);
+        Thread reporter = new Thread(() -> report(total, stopReporter), "pregen-progress");
+        reporter.setDaemon(true);
+        long start = System.nanoTime();
+        try {
+            reporter.start();
+            try {
+                new ParallelGenerator(gen, pool).generate(-radius, radius, minCy, maxCy, -radius, radius,
+                        this::shouldGenerate, this::write);
+            } finally {
+                // 워커 → 리포터 순으로 멈춘 뒤에만 닫는다. 둘 다 인터럽트는 안 한다 (FileChannel이 닫힘)
+                pool.shutdown();
+                awaitQuietly(pool);
+                stopReporter.countDown();
+                joinQuietly(reporter);
+            }
+            WorldStorage.close(info);
+
+            double sec = (System.nanoTime() - start) / 1e9;
+            System.out.printf("[PREGEN] %s generated=%d skipped=%d failed=%d bytes=%d in %.1fs (%.0f chunks/s)%n",
+                    stopping ? "stopped" : "done", generated.get(), skipped.get(), failed.get(), bytes.get(), sec, generated.get() / Math.max(sec, 1e-9));
+        } finally {
+            finished.countDown();
+        }
+        // 종료 중에는 훅을 뺄 수 없다
+        if (!stopping) Runtime.getRuntime().removeShutdownHook(hook);
+    }
+
+    // 워커 스레드. 이미 디스크에 있으면 건너뛴다 (재개)
+    private boolean shouldGenerate(int cx, int cy, int cz) {
+        if (stopping) return false;
+        try {
+            if (!WorldStorage.hasChunk(info, cx, cy, cz)) return true;
+        } catch (IOException ex) {
+            ex.printStackTrace();
+            return true;
+        }
+        skipped.incrementAndGet();
+        return false;
+    }
+
+    // 워커 스레드: 인코드는 락 밖에서, region 쓰기만 RegionCache 락 안에서
+    private void write(int cx, int cy, int cz, Chunk c) {
+        try {
+            byte[] data = ChunkCodecs.encode(info.codec(), cx, cy, cz, c);
+            WorldStorage.regions(info).write(cx, cy, cz, data);
+            bytes.addAndGet(data.length);
+            generated.incrementAndGet();
+        } catch (IOException ex) {
+            failed.incrementAndGet();
+            ex.printStackTrace();
+        }
+    }
+
+    private static void awaitQuietly(ForkJoinPool pool) {
+        try {
+            pool.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void joinQuietly(Thread t) {
+        try {
+            t.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // stop이 풀리면 끝난다 (인터럽트로 멈추면 flush 중인 채널이 닫힌다)
+    private void report(long total, CountDownLatch stop) {
+        long start = System.nanoTime(), lastFlush = start;
+        int lastDone = 0;
+        long last = start;
+        while (true) {
+            try {
+                if (stop.await(REPORT_NANOS, TimeUnit.NANOSECONDS)) return;
+            } catch (InterruptedException ex) {
+                return;
+            }
+            long now = System.nanoTime();
+            int done = generated.get();
+            int all = done + skipped.get() + failed.get();
+            double rate = (done - lastDone) / ((now - last) / 1e9);
+            double avg = done / ((now - start) / 1e9);
+            long left = total - all;
+            System.out.printf("[PREGEN] %d/%d (%.1f%%) %.0f chunks/s (avg %.0f) eta %ds%n",
+                    all, total, 100.0 * all / total, rate, avg, avg > 0 ? (long) (left / avg) : -1);
+            lastDone = done;
+            last = now;
+
+            // 끊겨도 여기까지는 남도록 주기적으로 커밋
+            if (now - lastFlush >= FLUSH_NANOS) {
+                try {
+                    WorldStorage.regions(info).flush();
+                } catch (IOException ex) {
+                    ex.printStackTrace();
+                }
+                lastFlush = now;
+            }
+        }
+    }
+}
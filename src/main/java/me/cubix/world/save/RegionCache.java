@@ -0,0 +1,112 @@
+package me.cubix.world.save;
+
+import me.cubix.world.chunk.Chunk;
+import me.cubix.world.chunk.ChunkCodecs;
+import me.cubix.world.chunk.ChunkPos;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 월드 하나의 region 파일들을 열어둔 채로 재사용한다.
+ * 없는 region은 한 번 확인한 뒤 기억해서 청크 miss마다 stat을 다시 하지 않는다.
+ */
+final class RegionCache implements Closeable {
+    private static final int MAX_OPEN = 16;
+
+    private final Path dir;
+    private final LinkedHashMap<Long, RegionFile> open = new LinkedHashMap<>(32, 0.75f, true);
+    private final Set<Long> absent = new HashSet<>();
+
+    RegionCache(Path dir) {
+        this.dir = dir;
+    }
+
+    static Path regionFile(Path dir, int rx, int ry, int rz) {
+        return dir.resolve("r." + rx + "." + ry + "." + rz + ".bin");
+    }
+
+    /** mmap 슬라이스를 락 안에서 바로 디코드한다 (슬라이스가 밖으로 새지 않게). */
+    synchronized Chunk load(int cx, int cy, int cz) throws IOException {
+        RegionFile r = region(cx, cy, cz, false);
+        if (r == null) return null;
+        ByteBuffer data = r.read(RegionFile.index(cx, cy, cz));
+        if (data == null) return null;
+        return ChunkCodecs.decode(data, cx, cy, cz);
+    }
+
+    synchronized void write(int cx, int cy, int cz, byte[] data) throws IOException {
+        RegionFile r = region(cx, cy, cz, true);
+        r.write(RegionFile.index(cx, cy, cz), data);
+    }
+
+    synchronized boolean has(int cx, int cy, int cz) throws IOException {
+        RegionFile r = region(cx, cy, cz, false);
+        return r != null && r.has(RegionFile.index(cx, cy, cz));
+    }
+
+    /**
+     * fsync는 캐시 락 밖에서 한다. 락을 쥔 채로 하면 그동안 다른 스레드의 load/has/write가 전부 멈춘다.
+     * RegionFile은 자기 락이 따로 있고, 그 사이 LRU로 닫힌 파일은 close()에서 이미 커밋됐다.
+     */
+    void flush() throws IOException {
+        List<RegionFile> files;
+        synchronized (this) {
+            files = new ArrayList<>(open.values());
+        }
+        for (RegionFile r : files) r.flush();
+    }
+
+    private RegionFile region(int cx, int cy, int cz, boolean create) throws IOException {
+        int rx = RegionFile.regionCoord(cx), ry = RegionFile.regionCoord(cy), rz = RegionFile.regionCoord(cz);
+        long key = ChunkPos.pack(rx, ry, rz);
+
+        RegionFile r = open.get(key);
+        if (r != null) return r;
+        if (!create && absent.contains(key)) return null;
+
+        Path file = regionFile(dir, rx, ry, rz);
+        if (!create && !Files.exists(file)) {
+            absent.add(key);
+            return null;
+        }
+
+        Files.createDirectories(dir);
+        r = new RegionFile(file);
+        absent.remove(key);
+        open.put(key, r);
+
+        if (open.size() > MAX_OPEN) {
+            Iterator<RegionFile> it = open.values().iterator();
+            RegionFile eldest = it.next();
+            it.remove();
+            eldest.close();
+        }
+        return r;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        IOException first = null;
+        for (RegionFile r : open.values()) {
+            try {
+                r.close(); // 커밋 안 된 헤더도 여기서 flush된다
+            } catch (IOException ex) {
+                if (first == null) first = ex;
+            }
+        }
+        open.clear();
+        absent.clear();
+        if (first != null) throw first;
+    }
+}
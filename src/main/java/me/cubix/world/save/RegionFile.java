@@ -0,0 +1,222 @@
+package me.cubix.world.save;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.zip.CRC32;
+
+/**
+ * 32x32x32 청크를 파일 하나에 묶어 저장한다.
+ *
+ * 레이아웃: [헤더: 청크당 int 1개 = (시작 섹터 << 8) | 섹터 수] [섹터들...]
+ * 각 레코드는 섹터 경계에서 시작하고, 앞 4바이트에 실제 데이터 길이를 적는다.
+ * 길이의 최상위 비트가 켜져 있으면 그 뒤 4바이트가 데이터의 CRC32다 (예전 레코드는 CRC 없음).
+ *
+ * 크래시 대비: 레코드는 항상 새 섹터에 쓰고(copy-on-write) 헤더는 메모리에서만 바꿔둔다.
+ * {@link #flush()}가 데이터 fsync → 바뀐 헤더 구간 한 번에 쓰기 → 헤더 fsync 순서로 커밋하고,
+ * 그 뒤에야 옛 섹터를 빈 자리로 돌린다. 그래서 디스크의 헤더는 언제나 완전히 쓰인 레코드만 가리킨다.
+ * CRC가 안 맞는 레코드는 없는 것으로 본다 (다시 생성됨).
+ */
+public final class RegionFile implements Closeable {
+    public static final int SHIFT = 5;
+    public static final int SIZE = 1 << SHIFT;
+    private static final int MASK = SIZE - 1;
+    private static final int ENTRIES = SIZE * SIZE * SIZE;
+
+    static final int SECTOR_BYTES = 512;
+    private static final int HEADER_BYTES = ENTRIES * Integer.BYTES;
+    private static final int HEADER_SECTORS = HEADER_BYTES / SECTOR_BYTES;
+    private static final int MAX_SECTORS = 0xFF; // 섹터 수는 8비트
+    private static final int CRC_FLAG = 0x80000000;
+    private static final long MAP_STEP = 1 << 20; // 매핑을 새로 뜨는 최소 파일 증가량
+    private static final int RECORD_HEADER = 2 * Integer.BYTES; // 길이 + CRC
+
+    private final Path file;
+    private final FileChannel ch;
+    private final int[] entries = new int[ENTRIES];
+    private final BitSet used = new BitSet();
+    // 덮어쓴 옛 레코드 섹터. 새 헤더가 디스크에 닿은 뒤(flush)에 풀어준다
+    private final BitSet pendingFree = new BitSet();
+    // 아직 디스크에 안 쓴 헤더 항목 범위
+    private int dirtyMin = Integer.MAX_VALUE, dirtyMax = -1;
+    private int sectorCount;
+    private MappedByteBuffer map;
+
+    public RegionFile(Path file) throws IOException {
+        this.file = file;
+        this.ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        if (ch.size() < HEADER_BYTES) {
+            // 새 파일: 빈 헤더를 먼저 깔아둔다
+            ch.write(ByteBuffer.allocate(HEADER_BYTES), 0);
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        while (header.hasRemaining()) {
+            if (ch.read(header, header.position()) < 0) throw new IOException("Truncated region header: " + file);
+        }
+        header.flip().asIntBuffer().get(entries);
+
+        sectorCount = (int)((ch.size() + SECTOR_BYTES - 1) / SECTOR_BYTES);
+        used.set(0, HEADER_SECTORS);
+        for (int e : entries) {
+            if (e == 0) continue;
+            int start = e >>> 8, count = e & 0xFF;
+            if (start + count > sectorCount) continue; // 잘린 파일이면 무시 (읽을 때 null)
+            used.set(start, start + count);
+        }
+    }
+
+    public static int regionCoord(int c) { return c >> SHIFT; }
+
+    public static int index(int cx, int cy, int cz) {
+        return ((cy & MASK) * SIZE + (cz & MASK)) * SIZE + (cx & MASK);
+    }
+
+    public Path file() { return file; }
+
+    public synchronized boolean has(int index) {
+        return entries[index] != 0;
+    }
+
+    /**
+     * 레코드가 없으면 null. 반환 버퍼는 position=0, limit=데이터 길이.
+     * 파일을 mmap 해두고 그 슬라이스를 그대로 돌려주므로 복사가 없다 (매핑 뒤쪽에 새로 붙은 레코드만 복사).
+     * 같은 섹터가 다시 쓰이면 내용이 바뀌니, 락을 잡은 채로 바로 디코드할 것.
+     */
+    public synchronized ByteBuffer read(int index) throws IOException {
+        int e = entries[index];
+        if (e == 0) return null;
+        int start = e >>> 8, count = e & 0xFF;
+        if (start + count > sectorCount) return null;
+
+        long pos = (long) start * SECTOR_BYTES;
+        long end = (long) (start + count) * SECTOR_BYTES;
+        if (end > Integer.MAX_VALUE) return readCopy(index, pos, count);
+
+        if (map == null || map.capacity() < end) {
+            // 새 레코드는 늘 파일 끝에 붙으므로 매번 다시 매핑하면 안 된다 (옛 매핑은 GC 때까지 남고
+            // Windows에선 파일도 잠긴다). 파일이 MAP_STEP 이상 자랐을 때만 다시 매핑하고, 그 전엔 복사해서 읽는다
+            long size = ch.size();
+            if (map == null || size - map.capacity() >= MAP_STEP) {
+                map = ch.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(size, Integer.MAX_VALUE));
+            }
+            if (map.capacity() < end) return readCopy(index, pos, count);
+        }
+        return verify(index, map.slice((int) pos, count * SECTOR_BYTES));
+    }
+
+    // 레코드 앞부분을 풀고 CRC를 확인한다. 깨졌으면 null
+    private ByteBuffer verify(int index, ByteBuffer rec) {
+        int raw = rec.getInt(0);
+        boolean hasCrc = (raw & CRC_FLAG) != 0;
+        int len = raw & ~CRC_FLAG;
+        int off = hasCrc ? RECORD_HEADER : Integer.BYTES;
+        if (len > rec.capacity() - off) {
+            System.err.println("[REGION] bad record length at " + index + " in " + file + ", treating as missing");
+            return null;
+        }
+        ByteBuffer data = rec.slice(off, len);
+        if (hasCrc && crc(data) != rec.getInt(Integer.BYTES)) {
+            System.err.println("[REGION] CRC mismatch at " + index + " in " + file + ", treating as missing");
+            return null;
+        }
+        return data;
+    }
+
+    private static int crc(ByteBuffer data) {
+        CRC32 c = new CRC32();
+        c.update(data.duplicate());
+        return (int) c.getValue();
+    }
+
+    private ByteBuffer readCopy(int index, long pos, int count) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(count * SECTOR_BYTES);
+        while (buf.hasRemaining()) {
+            int n = ch.read(buf, pos + buf.position());
+            if (n < 0) break;
+        }
+        buf.flip();
+        if (buf.remaining() < RECORD_HEADER) return null;
+        return verify(index, buf.slice());
+    }
+
+    /** 새 섹터에 쓰고 메모리 헤더만 바꾼다. 디스크 헤더는 flush() 때. 읽기는 바로 새 내용이 보인다. */
+    public synchronized void write(int index, byte[] data) throws IOException {
+        int needed = (data.length + RECORD_HEADER + SECTOR_BYTES - 1) / SECTOR_BYTES;
+        if (needed > MAX_SECTORS) throw new IOException("Chunk record too large: " + data.length + " bytes");
+
+        int e = entries[index];
+        int start = allocate(needed);
+
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        ByteBuffer buf = ByteBuffer.allocate(needed * SECTOR_BYTES);
+        buf.putInt(data.length | CRC_FLAG).putInt((int) crc.getValue()).put(data).clear();
+        long pos = (long) start * SECTOR_BYTES;
+        while (buf.hasRemaining()) ch.write(buf, pos + buf.position());
+
+        if (e != 0) {
+            int oldStart = e >>> 8, oldCount = e & 0xFF;
+            if (oldStart + oldCount <= sectorCount) pendingFree.set(oldStart, oldStart + oldCount);
+        }
+        entries[index] = (start << 8) | needed;
+        dirtyMin = Math.min(dirtyMin, index);
+        dirtyMax = Math.max(dirtyMax, index);
+    }
+
+    private int allocate(int needed) {
+        int run = HEADER_SECTORS;
+        while (true) {
+            int free = used.nextClearBit(run);
+            if (free >= sectorCount) break;
+            int next = used.nextSetBit(free);
+            if (next < 0 || next > sectorCount) next = sectorCount;
+            if (next - free >= needed) {
+                used.set(free, free + needed);
+                return free;
+            }
+            run = next;
+        }
+        // 끝에 붙인다
+        int start = Math.max(sectorCount, HEADER_SECTORS);
+        while (start > HEADER_SECTORS && !used.get(start - 1)) start--;
+        used.set(start, start + needed);
+        sectorCount = Math.max(sectorCount, start + needed);
+        return start;
+    }
+
+    /** 커밋: 레코드 fsync → 바뀐 헤더 구간 쓰기 → 헤더 fsync → 옛 섹터 반납. */
+    public synchronized void flush() throws IOException {
+        if (!ch.isOpen()) return; // close()가 이미 커밋했다
+        ch.force(false);
+        if (dirtyMax < 0) return;
+
+        ByteBuffer b = ByteBuffer.allocate((dirtyMax - dirtyMin + 1) * Integer.BYTES);
+        b.asIntBuffer().put(entries, dirtyMin, dirtyMax - dirtyMin + 1);
+        long pos = (long) dirtyMin * Integer.BYTES;
+        while (b.hasRemaining()) ch.write(b, pos + b.position());
+        ch.force(false);
+
+        used.andNot(pendingFree);
+        pendingFree.clear();
+        dirtyMin = Integer.MAX_VALUE;
+        dirtyMax = -1;
+    }
+
+    /** 커밋 안 된 쓰기가 있으면 커밋하고 닫는다. */
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            map = null;
+            ch.close();
+        }
+    }
+}
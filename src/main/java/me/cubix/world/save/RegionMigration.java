@@ -0,0 +1,100 @@
+package me.cubix.world.save;
+
+import me.cubix.world.WorldInfo;
+import me.cubix.world.WorldInfoStorage;
+import me.cubix.world.chunk.ChunkCodecs;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 예전 chunks/c.x.y.z.bin 파일들을 region 파일로 옮긴다.
+ * 월드를 처음 열 때 자동으로 돌고, 따로 실행해서 saves 전체를 변환할 수도 있다.
+ */
+public final class RegionMigration {
+    private static final Pattern LEGACY = Pattern.compile("c\\.(-?\\d+)\\.(-?\\d+)\\.(-?\\d+)\\.bin");
+
+    public static void migrate(WorldInfo info) throws IOException {
+        // region 캐시를 열 때 chunks/ 가 있으면 알아서 옮긴다
+        WorldStorage.regions(info);
+    }
+
+    static int migrate(WorldInfo info, RegionCache rc) throws IOException {
+        Path legacy = WorldStorage.chunkDir(info);
+        List<Path> files = new ArrayList<>();
+        try (var stream = Files.list(legacy)) {
+            stream.filter(Files::isRegularFile).forEach(files::add);
+        }
+
+        List<Path> moved = new ArrayList<>();
+        int broken = 0;
+        for (Path f : files) {
+            Matcher m = LEGACY.matcher(f.getFileName().toString());
+            if (!m.matches()) continue;
+            int cx = Integer.parseInt(m.group(1));
+            int cy = Integer.parseInt(m.group(2));
+            int cz = Integer.parseInt(m.group(3));
+
+            byte[] data = Files.readAllBytes(f);
+            try {
+                // 옮기기 전에 한 번 디코드해서 깨진 파일은 거른다
+                ChunkCodecs.decode(ByteBuffer.wrap(data), cx, cy, cz);
+            } catch (IOException ex) {
+                // chunks/ 밖으로 격리한다. 남겨두면 디렉터리가 안 지워져서 월드를 열 때마다 다시 돈다
+                Path dst = quarantineDir(info).resolve(f.getFileName());
+                System.err.println("[MIGRATE] broken chunk " + f + " -> " + dst + ": " + ex.getMessage());
+                Files.createDirectories(dst.getParent());
+                Files.move(f, dst, StandardCopyOption.REPLACE_EXISTING);
+                broken++;
+                continue;
+            }
+            rc.write(cx, cy, cz, data);
+            moved.add(f);
+        }
+        rc.flush();
+
+        // region이 디스크에 내려간 뒤에만 원본을 지운다
+        for (Path f : moved) Files.deleteIfExists(f);
+        try (var stream = Files.list(legacy)) {
+            if (stream.findAny().isEmpty()) Files.delete(legacy);
+        }
+
+        System.out.println("[MIGRATE] " + info.dir() + ": " + moved.size() + " chunks -> region"
+                + (broken > 0 ? ", " + broken + " broken -> " + quarantineDir(info) : ""));
+        return moved.size();
+    }
+
+    /** 디코드 안 되는 예전 청크 파일을 옮겨두는 곳. 자동으로 지우지는 않는다. */
+    static Path quarantineDir(WorldInfo info) {
+        return info.dir().resolve("chunks-broken");
+    }
+
+    /** 인자 없으면 saves/ 아래 모든 월드, 있으면 주어진 월드 디렉터리만 변환. */
+    public static void main(String[] args) throws IOException {
+        List<WorldInfo> worlds = new ArrayList<>();
+        if (args.length == 0) {
+            worlds.addAll(new WorldInfoStorage().listWorlds());
+        } else {
+            for (String a : args) {
+                Path dir = Paths.get(a);
+                String id = dir.getFileName().toString();
+                worlds.add(new WorldInfo(id, id, 0L, dir));
+            }
+        }
+
+        for (WorldInfo w : worlds) {
+            migrate(w);
+            WorldStorage.close(w);
+        }
+    }
+
+    private RegionMigration() {}
+}
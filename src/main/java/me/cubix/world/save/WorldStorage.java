@@ -3,14 +3,19 @@ package me.cubix.world.save;
 import me.cubix.world.World;
 import me.cubix.world.WorldInfo;
 import me.cubix.world.chunk.Chunk;
-import me.cubix.world.chunk.ChunkCodecRLE;
+import me.cubix.world.chunk.ChunkCodecs;
 import me.cubix.world.chunk.ChunkPos;
 
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.HashMap;
 import java.util.Map;
 
 public final class WorldStorage {
+    private static final Map<Path, RegionCache> regions = new HashMap<>();
+
+    /** 예전 청크당 파일 하나 방식의 디렉터리. 마이그레이션용으로만 남겨둠. */
     public static Path chunkDir(WorldInfo info) {
         return info.dir().resolve("chunks");
     }
@@ -19,29 +24,65 @@ public final class WorldStorage {
         return chunkDir(info).resolve("c." + cx + "." + cy + "." + cz + ".bin");
     }
 
+    public static Path regionDir(WorldInfo info) {
+        return info.dir().resolve("region");
+    }
+
+    /** 남은 dirty 청크를 지금 스레드에서 전부 쓰고 fsync. 월드를 나갈 때용 (평소엔 AutosaveService). */
     public static void saveDirtyChunks(World world) throws IOException {
-        System.out.println("[SAVE] saveDirtyChunks start");
-        WorldInfo info = world.info();
-        int total = world.chunksView().size();
+        long start = System.nanoTime();
+        RegionCache rc = regions(world.info());
         int dirty = 0;
-        for (var e : world.chunksView().entrySet()) if (e.getValue().isDirty()) dirty++;
-        System.out.println("[SAVE] chunks total=" + total + ", dirty=" + dirty);
         for (Map.Entry<ChunkPos, Chunk> e : world.chunksView().entrySet()) {
             ChunkPos p = e.getKey();
             Chunk c = e.getValue();
             if (!c.isDirty()) continue;
 
-            Path file = chunkFile(info, p.x(), p.y(), p.z());
-            ChunkCodecRLE.save(file, p.x(), p.y(), p.z(), c);
-            c.clearDirty();
+            int v = c.version();
+            rc.write(p.x(), p.y(), p.z(), ChunkCodecs.encode(world.info().codec(), p.x(), p.y(), p.z(), c));
+            c.markSaved(v);
+            dirty++;
         }
+        rc.flush();
+        System.out.println("[SAVE] final save chunks=" + dirty + " ms=" + (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /** 청크 하나를 바로 쓴다 (fsync는 안 함). */
+    public static void saveChunk(WorldInfo info, int cx, int cy, int cz, Chunk c) throws IOException {
+        regions(info).write(cx, cy, cz, ChunkCodecs.encode(info.codec(), cx, cy, cz, c));
     }
 
     public static Chunk loadChunkIfExists(WorldInfo info, int cx, int cy, int cz) throws IOException {
-        Path file = chunkFile(info, cx, cy, cz);
-        if (!java.nio.file.Files.exists(file)) return null;
-        return ChunkCodecRLE.load(file, cx, cy, cz);
+        return regions(info).load(cx, cy, cz);
+    }
+
+    public static boolean hasChunk(WorldInfo info, int cx, int cy, int cz) throws IOException {
+        return regions(info).has(cx, cy, cz);
+    }
+
+    /** 열린 region 파일을 닫는다. 월드에서 나갈 때 호출. */
+    public static void close(WorldInfo info) throws IOException {
+        RegionCache rc;
+        synchronized (regions) {
+            rc = regions.remove(regionDir(info));
+        }
+        if (rc != null) rc.close();
+    }
+
+    static RegionCache regions(WorldInfo info) throws IOException {
+        Path dir = regionDir(info);
+        synchronized (regions) {
+            RegionCache rc = regions.get(dir);
+            if (rc != null) return rc;
+
+            rc = new RegionCache(dir);
+            if (Files.isDirectory(chunkDir(info))) {
+                RegionMigration.migrate(info, rc);
+            }
+            regions.put(dir, rc);
+            return rc;
+        }
     }
 
     private WorldStorage() {}
-}
\ No newline at end of file
+}
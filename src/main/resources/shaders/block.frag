@@ -1,9 +1,13 @@
 #version 330 core
 in vec2 vUV;
+flat in vec2 vTile;
 out vec4 FragColor;
 
 uniform sampler2D uAtlas;
+uniform int uTilesPerRow;
 
 void main(){
-    FragColor = texture(uAtlas, vUV);
+    // 큰 사각형에서도 타일이 블록마다 반복되도록 아틀라스 칸 안으로 접는다
+    vec2 uv = (vTile + fract(vUV)) / float(uTilesPerRow);
+    FragColor = texture(uAtlas, uv);
 }
@@ -1,15 +1,33 @@
 #version 330 core
-layout (location=0) in vec3 aPos;
-layout (location=1) in vec2 aUV;
+// bit 0-4 x, 5-9 y, 10-14 z, 15-17 면, 18-27 타일 (ChunkBuilder)
+layout (location=0) in uint aVert;
 
 uniform mat4 uProj;
 uniform mat4 uView;
-uniform vec3 uChunkPos;
+uniform int uTilesPerRow;
+
+// 청크 원점. arena의 granule(2^uGranuleShift 정점)마다 하나 (ChunkArena)
+uniform isamplerBuffer uChunkOrigins;
+uniform int uGranuleShift;
 
 out vec2 vUV;
+flat out vec2 vTile;
 
 void main(){
-    vUV = aUV;
-    vec3 worldPos = aPos + uChunkPos;
+    vec3 pos = vec3(aVert & 31u, (aVert >> 5) & 31u, (aVert >> 10) & 31u);
+    uint face = (aVert >> 15) & 7u;
+    uint tile = aVert >> 18;
+
+    // 면의 두 접선 축 좌표가 곧 블록 단위 UV: X면 (z,y), Y면 (x,z), Z면 (x,y)
+    if (face < 2u)      vUV = pos.zy;
+    else if (face < 4u) vUV = pos.xz;
+    else                vUV = pos.xy;
+
+    uint n = uint(uTilesPerRow);
+    vTile = vec2(tile % n, tile / n);
+
+    // gl_VertexID에는 basevertex가 포함돼 있어서 arena 안 절대 위치가 된다
+    vec3 chunkPos = vec3(texelFetch(uChunkOrigins, gl_VertexID >> uGranuleShift).xyz);
+    vec3 worldPos = pos + chunkPos;
     gl_Position = uProj * uView * vec4(worldPos, 1.0);
 }